@@ -0,0 +1,68 @@
+#!/bin/bash
+
+# Order placement throughput and latency with group commit off and at several batching windows.
+# Needs MySQL running (./setup-database.sh), a built jar (mvn package -DskipTests) and hey
+# (https://github.com/rakyll/hey). Each run starts its own application instance.
+
+BASE_URL="http://localhost:8080"
+JAR=${JAR:-target/ecommerce-api-0.0.1-SNAPSHOT.jar}
+REQUESTS=${REQUESTS:-5000}
+CONCURRENCY=${CONCURRENCY:-100}
+WINDOWS=${WINDOWS:-"1 2 5 10 20"}
+
+if ! command -v hey > /dev/null; then
+    echo "hey is required: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+wait_for_app() {
+    for i in $(seq 1 60); do
+        if curl -s -o /dev/null "$BASE_URL/api/products"; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo "Application did not start, see $1"
+    return 1
+}
+
+login() {
+    curl -s -X POST -H "Content-Type: application/json" -d "$1" "$BASE_URL/api/auth/login" | jq -r '.token // empty'
+}
+
+run() {
+    local label=$1
+    shift
+    local log="benchmark-orders-$label.log"
+
+    echo "=== $label ==="
+    java -jar "$JAR" "$@" \
+        --spring.jpa.show-sql=false \
+        --app.concurrency-limit.enabled=false \
+        --logging.level.com.ecommerce=INFO \
+        --logging.level.org.springframework.security=INFO > "$log" 2>&1 &
+    local pid=$!
+    wait_for_app "$log" || { kill $pid; return 1; }
+
+    local admin_token=$(login '{"email":"admin@ecommerce.com","password":"admin123"}')
+    local user_token=$(login '{"email":"john.doe@email.com","password":"user123"}')
+
+    # A product with enough stock for every request, so no order is rejected
+    local product_id=$(curl -s -X POST -H "Content-Type: application/json" -H "Authorization: Bearer $admin_token" \
+        -d '{"name":"Benchmark Item","description":"Load test","price":9.99,"category":"Benchmark","stockQuantity":100000000}' \
+        "$BASE_URL/api/products" | jq -r '.id')
+
+    hey -n $REQUESTS -c $CONCURRENCY -m POST -T "application/json" \
+        -H "Authorization: Bearer $user_token" \
+        -d "{\"orderItems\":[{\"productId\":$product_id,\"quantity\":1}]}" \
+        "$BASE_URL/api/orders" | grep -E "Requests/sec|Average|50%|99%|\[[0-9]+\]"
+
+    kill $pid
+    wait $pid 2>/dev/null
+    echo ""
+}
+
+run "unbatched" --app.order-batching.enabled=false
+for window in $WINDOWS; do
+    run "window-${window}ms" --app.order-batching.enabled=true --app.order-batching.window-ms=$window
+done
@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Compares platform and virtual request threads on the catalog and order endpoints.
+# Needs MySQL running (./setup-database.sh), a built jar (mvn package -DskipTests) and hey
+# (https://github.com/rakyll/hey). Each mode starts its own application instance.
+
+BASE_URL="http://localhost:8080"
+JAR=${JAR:-target/ecommerce-api-0.0.1-SNAPSHOT.jar}
+REQUESTS=${REQUESTS:-20000}
+CONCURRENCY=${CONCURRENCY:-400}
+
+if ! command -v hey > /dev/null; then
+    echo "hey is required: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+wait_for_app() {
+    for i in $(seq 1 60); do
+        if curl -s -o /dev/null "$BASE_URL/api/products"; then
+            return 0
+        fi
+        sleep 2
+    done
+    echo "Application did not start, see $1"
+    return 1
+}
+
+run_mode() {
+    local virtual=$1
+    local log="benchmark-virtual-$virtual.log"
+
+    echo "=== spring.threads.virtual.enabled=$virtual ==="
+    # Pinned virtual threads are reported in the log with their stack
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.threads.virtual.enabled=$virtual \
+        --spring.jpa.show-sql=false \
+        --app.concurrency-limit.enabled=false \
+        --logging.level.com.ecommerce=INFO \
+        --logging.level.org.springframework.security=INFO > "$log" 2>&1 &
+    local pid=$!
+    wait_for_app "$log" || { kill $pid; return 1; }
+
+    local token=$(curl -s -X POST -H "Content-Type: application/json" \
+        -d '{"email":"admin@ecommerce.com","password":"admin123"}' \
+        "$BASE_URL/api/auth/login" | jq -r '.token // empty')
+
+    # Warm up the JIT and the connection pool before measuring
+    hey -n 2000 -c 50 "$BASE_URL/api/products?page=0&size=20" > /dev/null
+
+    echo "--- GET /api/products?page=0&size=20"
+    hey -n $REQUESTS -c $CONCURRENCY "$BASE_URL/api/products?page=0&size=20" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+    echo "--- GET /api/products/search?searchTerm=phone"
+    hey -n $REQUESTS -c $CONCURRENCY "$BASE_URL/api/products/search?searchTerm=phone" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+    echo "--- GET /api/orders?page=0&size=20"
+    hey -n $REQUESTS -c $CONCURRENCY -H "Authorization: Bearer $token" "$BASE_URL/api/orders?page=0&size=20" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+    echo "--- GET /api/customers/2/orders"
+    hey -n $REQUESTS -c $CONCURRENCY -H "Authorization: Bearer $token" "$BASE_URL/api/customers/2/orders" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]"
+
+    echo "--- pinned frames reported: $(grep -c "<== monitors" "$log") (see $log)"
+    kill $pid
+    wait $pid 2>/dev/null
+    echo ""
+}
+
+run_mode false
+run_mode true
@@ -0,0 +1,17 @@
+package com.ecommerce.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a handler (or every handler of a controller) in the admin lane. Handlers guarded by exactly
+ * {@code @PreAuthorize("hasRole('ADMIN')")} are placed there without it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdminLane {
+}
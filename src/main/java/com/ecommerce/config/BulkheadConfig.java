@@ -0,0 +1,50 @@
+package com.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Shopper and admin lanes: one connection pool each behind a routing DataSource, and the interceptor that
+ * binds requests to their lane. Both pools use the spring.datasource connection settings; the shopper pool
+ * is tuned under spring.datasource.hikari, the admin pool under app.bulkhead.admin-pool.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LaneInterceptor laneInterceptor;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource shopperDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.bulkhead.admin-pool")
+    public HikariDataSource adminDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("shopperDataSource") DataSource shopperDataSource,
+                                 @Qualifier("adminDataSource") DataSource adminDataSource) {
+        return new LaneRoutingDataSource(shopperDataSource, adminDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(laneInterceptor).addPathPatterns("/api/**");
+    }
+}
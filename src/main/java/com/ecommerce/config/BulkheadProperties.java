@@ -0,0 +1,41 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    private Map<String, LaneSettings> lanes = new HashMap<>();
+
+    public LaneSettings settingsFor(Lane lane) {
+        return lanes.getOrDefault(lane.name().toLowerCase(Locale.ROOT), new LaneSettings());
+    }
+
+    // Getters and Setters
+    public Map<String, LaneSettings> getLanes() { return lanes; }
+    public void setLanes(Map<String, LaneSettings> lanes) { this.lanes = lanes; }
+
+    public static class LaneSettings {
+        // Requests of the lane handled at the same time
+        private int maxConcurrent = 100;
+        // How long a request may queue for a permit before it is refused with 503
+        private long maxWaitMs = 1000;
+        private int retryAfterSeconds = 1;
+
+        // Getters and Setters
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+        public long getMaxWaitMs() { return maxWaitMs; }
+        public void setMaxWaitMs(long maxWaitMs) { this.maxWaitMs = maxWaitMs; }
+
+        public int getRetryAfterSeconds() { return retryAfterSeconds; }
+        public void setRetryAfterSeconds(int retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int retryAfterSeconds = 1;
+    private Map<String, Group> groups = new HashMap<>();
+
+    public Group groupFor(String name) {
+        return groups.getOrDefault(name, new Group());
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(int retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+
+    public Map<String, Group> getGroups() { return groups; }
+    public void setGroups(Map<String, Group> groups) { this.groups = groups; }
+
+    public static class Group {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        // Requests slower than this count as congestion and shrink the limit
+        private long latencyTargetMs = 500;
+        private double backoffRatio = 0.9;
+        // Share of the limit only priority requests may use
+        private double priorityReserve = 0;
+
+        // Getters and Setters
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+        public long getLatencyTargetMs() { return latencyTargetMs; }
+        public void setLatencyTargetMs(long latencyTargetMs) { this.latencyTargetMs = latencyTargetMs; }
+
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+
+        public double getPriorityReserve() { return priorityReserve; }
+        public void setPriorityReserve(double priorityReserve) { this.priorityReserve = priorityReserve; }
+    }
+}
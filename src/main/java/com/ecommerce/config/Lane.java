@@ -0,0 +1,42 @@
+package com.ecommerce.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Execution lane of the current thread. Shopper and admin/reporting work get separate request permits and
+ * separate connection pools, so heavy admin queries and exports cannot take capacity from checkout.
+ */
+public enum Lane {
+    SHOPPER, ADMIN;
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    // The lane of this thread; work outside a request runs in the shopper lane unless it says otherwise
+    public static Lane current() {
+        Lane lane = CURRENT.get();
+        return lane == null ? SHOPPER : lane;
+    }
+
+    static void enter(Lane lane) {
+        CURRENT.set(lane);
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    // Runs work in this lane, for background jobs and worker threads that do not inherit the request's lane
+    public <T> T call(Supplier<T> work) {
+        Lane previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits each request into its lane: admin handlers (see {@link AdminLane}) into the admin lane, all others
+ * into the shopper lane. Every lane has its own fair permits; a request waits at most the lane's max-wait for
+ * one and is then refused with 503. While the handler runs, the thread is bound to the lane, so its database
+ * work is routed to the lane's connection pool.
+ */
+@Component
+public class LaneInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LANE_ATTRIBUTE = LaneInterceptor.class.getName() + ".lane";
+    private static final String ADMIN_ONLY = "hasRole('ADMIN')";
+
+    private final Map<Lane, Semaphore> permits = new EnumMap<>(Lane.class);
+    private final Map<Lane, BulkheadProperties.LaneSettings> settings = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejected = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> waits = new EnumMap<>(Lane.class);
+    private final Map<Method, Lane> lanesByMethod = new ConcurrentHashMap<>();
+
+    public LaneInterceptor(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (Lane lane : Lane.values()) {
+            BulkheadProperties.LaneSettings laneSettings = properties.settingsFor(lane);
+            Semaphore semaphore = new Semaphore(laneSettings.getMaxConcurrent(), true);
+            String name = lane.name().toLowerCase(Locale.ROOT);
+            permits.put(lane, semaphore);
+            settings.put(lane, laneSettings);
+            Gauge.builder("bulkhead.lane.active", semaphore, s -> laneSettings.getMaxConcurrent() - s.availablePermits())
+                    .tag("lane", name).register(meterRegistry);
+            Gauge.builder("bulkhead.lane.queued", semaphore, Semaphore::getQueueLength)
+                    .tag("lane", name).register(meterRegistry);
+            rejected.put(lane, Counter.builder("bulkhead.lane.rejected").tag("lane", name).register(meterRegistry));
+            waits.put(lane, Timer.builder("bulkhead.lane.wait").tag("lane", name).register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Lane lane = lanesByMethod.computeIfAbsent(handlerMethod.getMethod(), method -> laneOf(handlerMethod));
+        BulkheadProperties.LaneSettings laneSettings = settings.get(lane);
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.get(lane).tryAcquire(laneSettings.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waits.get(lane).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.get(lane).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(laneSettings.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Error: server busy, retry later\"}");
+            return false;
+        }
+        request.setAttribute(LANE_ATTRIBUTE, lane);
+        Lane.enter(lane);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        leave(request);
+    }
+
+    // The async part of the request runs on other threads; this thread and its permit are free again
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        leave(request);
+    }
+
+    private void leave(HttpServletRequest request) {
+        Object lane = request.getAttribute(LANE_ATTRIBUTE);
+        if (lane != null) {
+            request.removeAttribute(LANE_ATTRIBUTE);
+            permits.get((Lane) lane).release();
+        }
+        Lane.exit();
+    }
+
+    private static Lane laneOf(HandlerMethod handlerMethod) {
+        if (handlerMethod.hasMethodAnnotation(AdminLane.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), AdminLane.class)) {
+            return Lane.ADMIN;
+        }
+        PreAuthorize preAuthorize = handlerMethod.getMethodAnnotation(PreAuthorize.class);
+        if (preAuthorize != null && preAuthorize.value().replace(" ", "").equals(ADMIN_ONLY)) {
+            return Lane.ADMIN;
+        }
+        return Lane.SHOPPER;
+    }
+}
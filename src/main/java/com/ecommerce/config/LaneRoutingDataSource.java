@@ -0,0 +1,21 @@
+package com.ecommerce.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Hands out connections from the pool of the calling thread's lane
+public class LaneRoutingDataSource extends AbstractRoutingDataSource {
+
+    public LaneRoutingDataSource(DataSource shopperDataSource, DataSource adminDataSource) {
+        setTargetDataSources(Map.of(Lane.SHOPPER, shopperDataSource, Lane.ADMIN, adminDataSource));
+        setDefaultTargetDataSource(shopperDataSource);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Lane.current();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.low-stock")
+public class LowStockProperties {
+
+    private int defaultThreshold = 10;
+    private Map<String, Integer> categoryThresholds = new HashMap<>();
+    private long streamTimeoutMs = 30 * 60 * 1000L;
+
+    // A product is low on stock when its quantity is below the threshold of its category
+    public int thresholdFor(String category) {
+        if (category != null) {
+            for (Map.Entry<String, Integer> entry : categoryThresholds.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(category.trim())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return defaultThreshold;
+    }
+
+    public int maxThreshold() {
+        int max = defaultThreshold;
+        for (Integer threshold : categoryThresholds.values()) {
+            max = Math.max(max, threshold);
+        }
+        return max;
+    }
+
+    // Getters and Setters
+    public int getDefaultThreshold() { return defaultThreshold; }
+    public void setDefaultThreshold(int defaultThreshold) { this.defaultThreshold = defaultThreshold; }
+
+    public Map<String, Integer> getCategoryThresholds() { return categoryThresholds; }
+    public void setCategoryThresholds(Map<String, Integer> categoryThresholds) { this.categoryThresholds = categoryThresholds; }
+
+    public long getStreamTimeoutMs() { return streamTimeoutMs; }
+    public void setStreamTimeoutMs(long streamTimeoutMs) { this.streamTimeoutMs = streamTimeoutMs; }
+}
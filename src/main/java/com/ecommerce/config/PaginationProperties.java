@@ -0,0 +1,35 @@
+package com.ecommerce.config;
+
+import com.ecommerce.dto.CountedPage.CountStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+
+    private CountStrategy defaultCountStrategy = CountStrategy.EXACT;
+    private Map<String, CountStrategy> countStrategies = new HashMap<>();
+    private long countCacheTtlMs = 30000;
+    private int countCacheMaxEntries = 10000;
+
+    public CountStrategy strategyFor(String endpoint) {
+        return countStrategies.getOrDefault(endpoint, defaultCountStrategy);
+    }
+
+    // Getters and Setters
+    public CountStrategy getDefaultCountStrategy() { return defaultCountStrategy; }
+    public void setDefaultCountStrategy(CountStrategy defaultCountStrategy) { this.defaultCountStrategy = defaultCountStrategy; }
+
+    public Map<String, CountStrategy> getCountStrategies() { return countStrategies; }
+    public void setCountStrategies(Map<String, CountStrategy> countStrategies) { this.countStrategies = countStrategies; }
+
+    public long getCountCacheTtlMs() { return countCacheTtlMs; }
+    public void setCountCacheTtlMs(long countCacheTtlMs) { this.countCacheTtlMs = countCacheTtlMs; }
+
+    public int getCountCacheMaxEntries() { return countCacheMaxEntries; }
+    public void setCountCacheMaxEntries(int countCacheMaxEntries) { this.countCacheMaxEntries = countCacheMaxEntries; }
+}
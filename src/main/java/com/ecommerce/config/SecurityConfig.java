@@ -1,10 +1,13 @@
 package com.ecommerce.config;
 
 import com.ecommerce.security.AuthTokenFilter;
+import com.ecommerce.security.ConcurrencyLimitFilter;
 import com.ecommerce.security.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -30,6 +33,11 @@ public class SecurityConfig {
         return new AuthTokenFilter();
     }
 
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitFilter(properties, meterRegistry);
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
@@ -49,7 +57,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ConcurrencyLimitFilter concurrencyLimitFilter) throws Exception {
         http.cors().and().csrf().disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
                 .authorizeHttpRequests(authz -> authz
@@ -59,19 +67,33 @@ public class SecurityConfig {
                         .requestMatchers("/api/products/{id}").permitAll()
                         .requestMatchers("/api/products/category/**").permitAll()
                         .requestMatchers("/api/products/search").permitAll()
+                        .requestMatchers("/api/products/facets").permitAll()
+                        .requestMatchers("/api/products/filter").permitAll()
+                        .requestMatchers("/api/products/price-range").permitAll()
+                        .requestMatchers("/api/products/top-sellers").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/products/{id}/related").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/products/lookup").permitAll()
                         .requestMatchers("/api/products/**").hasRole("ADMIN")
                         .requestMatchers("/api/customers").hasRole("ADMIN")
                         .requestMatchers("/api/customers/{id}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/customers/profile").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/api/customers/me/overview").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/orders").hasRole("ADMIN")
+                        .requestMatchers("/api/orders/events").hasRole("ADMIN")
                         .requestMatchers("/api/orders/{id}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/orders/customer/**").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers("/api/orders/requests/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/orders/status/**").hasRole("ADMIN")
+                        .requestMatchers("/api/reports/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Shed excess load before the token filter loads the user from the database
+        http.addFilterBefore(concurrencyLimitFilter, AuthTokenFilter.class);
 
         return http.build();
     }
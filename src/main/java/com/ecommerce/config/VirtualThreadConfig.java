@@ -0,0 +1,30 @@
+package com.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With spring.threads.virtual.enabled Spring Boot serves requests and runs task executors and schedulers
+ * on virtual threads. Request concurrency is then no longer capped by Tomcat's thread pool, so each lane's
+ * connection pool is wrapped in a PermitDataSource with as many permits as the pool has connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPermitPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                return new PermitDataSource(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+            }
+        };
+    }
+}
@@ -1,20 +1,29 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.AccountOverviewDto;
 import com.ecommerce.dto.AuthDto;
+import com.ecommerce.dto.CountedPage;
 import com.ecommerce.dto.CustomerDto;
+import com.ecommerce.dto.OrderHistoryDto;
 import com.ecommerce.model.Customer;
-import com.ecommerce.model.Order;
 import com.ecommerce.security.UserPrincipal;
+import com.ecommerce.service.AccountOverviewService;
 import com.ecommerce.service.CustomerService;
+import com.ecommerce.service.ExportService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.PageCountService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Locale;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,17 +33,53 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private AccountOverviewService accountOverviewService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PageCountService pageCountService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<CustomerDto>> getAllCustomers(
+    public ResponseEntity<?> getAllCustomers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String count) {
         
-        Page<Customer> customers = customerService.getAllCustomers(page, size);
+        CountedPage.CountStrategy countStrategy;
+        try {
+            countStrategy = pageCountService.resolve("customers", count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        Page<Customer> customers = customerService.getAllCustomers(page, size, countStrategy);
         Page<CustomerDto> customerDtos = customers.map(customerService::convertToDto);
         return ResponseEntity.ok(customerDtos);
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportCustomers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+            throws IOException {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=customers." + exportFormat.getExtension());
+        exportService.exportCustomers(exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #id == authentication.principal.id)")
     public ResponseEntity<CustomerDto> getCustomerById(@PathVariable Long id) {
@@ -52,6 +97,17 @@ public class CustomerController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Profile, recent orders, open orders and lifetime spend in one response; sections that miss
+    // the deadline are listed in "unavailable"
+    @GetMapping("/me/overview")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<AccountOverviewDto> getAccountOverview(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return accountOverviewService.getOverview(userPrincipal.getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> registerCustomer(@Valid @RequestBody AuthDto.RegisterRequest registerRequest) {
         try {
@@ -87,13 +143,23 @@ public class CustomerController {
 
     @GetMapping("/{id}/orders")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #id == authentication.principal.id)")
-    public ResponseEntity<List<Order>> getCustomerOrders(@PathVariable Long id) {
-        try {
-            List<Order> orders = customerService.getCustomerOrders(id);
-            return ResponseEntity.ok(orders);
-        } catch (RuntimeException e) {
+    public ResponseEntity<?> getCustomerOrders(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: limit must be between 1 and 100"));
+        }
+        if (customerService.getCustomerById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        try {
+            OrderHistoryDto history = orderService.getOrderHistory(id, cursor, limit);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
     }
 
     // Helper class for response messages
@@ -1,17 +1,29 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.exception.CustomExceptions;
 import com.ecommerce.model.Order;
 import com.ecommerce.security.UserPrincipal;
+import com.ecommerce.model.OrderRequest;
+import com.ecommerce.service.IdempotencyService;
+import com.ecommerce.service.OrderBatchService;
+import com.ecommerce.service.OrderEventService;
+import com.ecommerce.service.OrderRequestService;
 import com.ecommerce.service.OrderService;
+import com.ecommerce.service.PageCountService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -22,13 +34,35 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderRequestService orderRequestService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderEventService orderEventService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<OrderDto>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String count) {
         
-        Page<Order> orders = orderService.getAllOrders(page, size);
+        CountedPage.CountStrategy countStrategy;
+        try {
+            countStrategy = pageCountService.resolve("orders", count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        Page<Order> orders = orderService.getAllOrders(page, size, countStrategy);
         Page<OrderDto> orderDtos = orders.map(orderService::convertToDto);
         return ResponseEntity.ok(orderDtos);
     }
@@ -55,20 +89,61 @@ public class OrderController {
 
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderCreateDto orderRequest, Authentication authentication) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderCreateDto orderRequest,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         Authentication authentication) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             // Users can only create orders for themselves
             Long customerId = userPrincipal.getId();
-            
-            Order order = orderService.createOrder(customerId, orderRequest.getOrderItems());
-            return ResponseEntity.ok(orderService.convertToDto(order));
+            List<OrderItemCreateDto> items = orderRequest.getOrderItems();
+
+            if (idempotencyKey == null) {
+                return placeOrder(customerId, items);
+            }
+            // Batched placement waits for the batch thread, so it must not run inside the key's transaction
+            boolean atomic = orderRequestService.isEnabled() || !orderBatchService.isEnabled();
+            return idempotencyService.execute(customerId, idempotencyKey, items, atomic,
+                    () -> placeOrder(customerId, items));
+        } catch (CustomExceptions.ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (CustomExceptions.UnprocessableEntityException e) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (CustomExceptions.BadRequestException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(null);
         }
     }
 
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamOrderEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) List<Order.OrderStatus> status) {
+        return orderEventService.subscribe(lastEventId, status);
+    }
+
+    @GetMapping("/requests/{reference}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and @orderRequestService.getCustomerId(#reference) == authentication.principal.id)")
+    public ResponseEntity<OrderRequestDto> getOrderRequest(@PathVariable String reference) {
+        return orderRequestService.getRequest(reference)
+                .map(request -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    // Hint for pollers while the request is still queued or being placed
+                    if (request.getStatus() == OrderRequest.Status.PENDING || request.getStatus() == OrderRequest.Status.PROCESSING) {
+                        response.header(HttpHeaders.RETRY_AFTER, "1");
+                    }
+                    return response.body(orderRequestService.convertToDto(request));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable Long id, @RequestBody StatusUpdateRequest statusRequest) {
@@ -102,6 +177,21 @@ public class OrderController {
         return ResponseEntity.ok(orderDtos);
     }
 
+    private ResponseEntity<?> placeOrder(Long customerId, List<OrderItemCreateDto> items) {
+        // Async mode: the order is queued and placed by a worker, the client polls the request
+        if (orderRequestService.isEnabled()) {
+            OrderRequest accepted = orderRequestService.accept(customerId, items);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/requests/" + accepted.getReference()))
+                    .body(orderRequestService.convertToDto(accepted));
+        }
+        if (orderBatchService.isEnabled()) {
+            return ResponseEntity.ok(orderBatchService.placeOrder(customerId, items));
+        }
+        Order order = orderService.createOrder(customerId, items);
+        return ResponseEntity.ok(orderService.convertToDto(order));
+    }
+
     // Helper classes for request handling
     public static class StatusUpdateRequest {
         private Order.OrderStatus status;
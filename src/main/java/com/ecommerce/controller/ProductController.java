@@ -1,60 +1,230 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.CountedPage;
+import com.ecommerce.dto.FacetResultDto;
 import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.ProductLookupDto;
+import com.ecommerce.dto.RelatedProductDto;
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.exception.CustomExceptions;
 import com.ecommerce.model.Product;
+import com.ecommerce.service.CatalogIndexService;
+import com.ecommerce.service.CatalogVersionService;
+import com.ecommerce.service.ExportService;
+import com.ecommerce.service.LowStockMonitor;
+import com.ecommerce.service.PageCountService;
+import com.ecommerce.service.ProductImportService;
+import com.ecommerce.service.ProductResponseCache;
+import com.ecommerce.service.ProductResponseCache.CachedResponse;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.TopSellersLeaderboard;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_LOOKUP_IDS = 500;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private TopSellersLeaderboard topSellersLeaderboard;
+
+    @Autowired
+    private PageCountService pageCountService;
+
     @GetMapping
-    public ResponseEntity<Page<ProductDto>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String count,
+            WebRequest webRequest) {
         
-        Page<Product> products = productService.getAllProducts(page, size, sortBy, sortDir);
+        CountedPage.CountStrategy countStrategy;
+        try {
+            countStrategy = pageCountService.resolve("products", count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        // checkNotModified has already written the 304 when the client's copy is current
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        Page<Product> products = productService.getAllProducts(page, size, sortBy, sortDir, countStrategy);
         Page<ProductDto> productDtos = products.map(productService::convertToDto);
         return ResponseEntity.ok(productDtos);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getProductsByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: between 1 and " + MAX_LOOKUP_IDS + " product ids are required"));
+        }
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productService.lookupProductsJson(ids));
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<byte[]> lookupProducts(@Valid @RequestBody ProductLookupDto lookupRequest) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productService.lookupProductsJson(lookupRequest.getIds()));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(product -> ResponseEntity.ok(productService.convertToDto(product)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        // Revalidations of indexed products are answered without touching the database
+        long indexedLastModified = catalogIndexService.lastModified(id);
+        if (indexedLastModified > 0 && webRequest.checkNotModified(productEtag(id, indexedLastModified), indexedLastModified)) {
+            return null;
+        }
+
+        CachedResponse cached = responseCache.getProduct(id, indexedLastModified);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (cached == null) {
+            Optional<Product> product = productService.getProductById(id);
+            if (product.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            long lastModified = CatalogIndexService.toEpochMillis(product.get());
+            cached = responseCache.putProduct(id, lastModified, productService.convertToDto(product.get()));
+            if (indexedLastModified <= 0) {
+                response.eTag(productEtag(id, lastModified)).lastModified(lastModified);
+            }
+        }
+        return cachedJson(response, cached, webRequest);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<ProductDto>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String count,
+            WebRequest webRequest) {
         
-        Page<Product> products = productService.getProductsByCategory(category, page, size);
+        CountedPage.CountStrategy countStrategy;
+        try {
+            countStrategy = pageCountService.resolve("products-by-category", count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        long catalogVersion = catalogVersionService.getVersion();
+        if (webRequest.checkNotModified(catalogVersionService.getEtag(catalogVersion))) {
+            return null;
+        }
+        // First pages are what storefront navigation hits, so they are served from pre-serialized bytes
+        if (page == 0 && count == null) {
+            CachedResponse cached = responseCache.getCategoryPage(category, size, catalogVersion);
+            if (cached == null) {
+                Page<ProductDto> firstPage = productService.getProductsByCategory(category, 0, size, countStrategy)
+                        .map(productService::convertToDto);
+                cached = responseCache.putCategoryPage(category, size, catalogVersion, firstPage);
+            }
+            return cachedJson(ResponseEntity.ok(), cached, webRequest);
+        }
+        Page<Product> products = productService.getProductsByCategory(category, page, size, countStrategy);
         Page<ProductDto> productDtos = products.map(productService::convertToDto);
         return ResponseEntity.ok(productDtos);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @RequestParam String searchTerm,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String count,
+            WebRequest webRequest) {
         
-        Page<Product> products = productService.searchProducts(searchTerm, page, size);
+        CountedPage.CountStrategy countStrategy;
+        try {
+            countStrategy = pageCountService.resolve("product-search", count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        Page<Product> products = productService.searchProducts(searchTerm, page, size, countStrategy);
+        Page<ProductDto> productDtos = products.map(productService::convertToDto);
+        return ResponseEntity.ok(productDtos);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResultDto> getFacets(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            WebRequest webRequest) {
+        
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalogIndexService.facets(category, minPrice, maxPrice, inStock));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<Page<ProductDto>> filterProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+        
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        Page<Product> products = productService.filterProducts(category, minPrice, maxPrice, inStock, page, size);
         Page<ProductDto> productDtos = products.map(productService::convertToDto);
         return ResponseEntity.ok(productDtos);
     }
@@ -66,6 +236,97 @@ public class ProductController {
         return ResponseEntity.ok(productService.convertToDto(product));
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(@RequestParam(required = false) Integer chunkSize, HttpServletRequest request) {
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format, chunkSize));
+        } catch (CustomExceptions.ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/price-range")
+    public ResponseEntity<?> getProductsByPriceRange(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        
+        if (size < 1 || size > 100) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: size must be between 1 and 100"));
+        }
+        if (webRequest.checkNotModified(catalogVersionService.getEtag())) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(productService.getProductsByPriceRange(minPrice, maxPrice, category, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedProductDto>> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(productService.getRelatedProducts(id, Math.max(1, limit)));
+    }
+
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<TopSellerDto>> getTopSellers(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(topSellersLeaderboard.getTopSellers(category, Math.max(1, limit)));
+    }
+
+    @GetMapping("/low-stock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getLowStockProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: limit must be at least 1"));
+        }
+        return ResponseEntity.ok(lowStockMonitor.getLowStock(category, limit));
+    }
+
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamLowStockEvents() {
+        return lowStockMonitor.subscribe();
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportProducts(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response)
+            throws IOException {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=products." + exportFormat.getExtension());
+        exportService.exportProducts(exportFormat, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
@@ -87,4 +348,35 @@ public class ProductController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Helper class for response messages
+    public static class MessageResponse {
+        private String message;
+
+        public MessageResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    private static ResponseEntity<byte[]> cachedJson(ResponseEntity.BodyBuilder response, CachedResponse cached,
+                                                     WebRequest webRequest) {
+        response.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cached.getGzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.getGzip());
+        }
+        return response.body(cached.getJson());
+    }
+
+    private static String productEtag(Long id, long lastModified) {
+        return "W/\"product-" + id + "-" + lastModified + "\"";
+    }
 }
@@ -0,0 +1,82 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.config.AdminLane;
+import com.ecommerce.dto.SalesReportDto;
+import com.ecommerce.model.SalesRollup;
+import com.ecommerce.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reports")
+@AdminLane
+public class ReportController {
+
+    private static final int MAX_REPORT_DAYS = 366;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @GetMapping("/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSalesReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy) {
+
+        SalesRollup.Dimension dimension;
+        try {
+            dimension = SalesRollup.Dimension.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: groupBy must be one of day, category or product"));
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_REPORT_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: date range must be ascending and at most " + MAX_REPORT_DAYS + " days"));
+        }
+        List<SalesReportDto> report = salesRollupService.getSalesReport(from, to, dimension);
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/sales/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> backfillSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: from must not be after to"));
+        }
+        try {
+            int rows = salesRollupService.backfill(from, to);
+            return ResponseEntity.ok(new MessageResponse("Rebuilt " + rows + " sales rollup rows"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    public static class MessageResponse {
+        private String message;
+
+        public MessageResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AccountOverviewDto {
+
+    private CustomerDto profile;
+    private List<OrderDto> recentOrders;
+    private Long openOrderCount;
+    private Long orderCount;
+    private BigDecimal lifetimeSpend;
+    // Sections that missed the deadline or failed; their fields are null
+    private List<String> unavailable = new ArrayList<>();
+
+    public AccountOverviewDto() {}
+
+    public boolean isPartial() {
+        return !unavailable.isEmpty();
+    }
+
+    // Getters and Setters
+    public CustomerDto getProfile() { return profile; }
+    public void setProfile(CustomerDto profile) { this.profile = profile; }
+
+    public List<OrderDto> getRecentOrders() { return recentOrders; }
+    public void setRecentOrders(List<OrderDto> recentOrders) { this.recentOrders = recentOrders; }
+
+    public Long getOpenOrderCount() { return openOrderCount; }
+    public void setOpenOrderCount(Long openOrderCount) { this.openOrderCount = openOrderCount; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getLifetimeSpend() { return lifetimeSpend; }
+    public void setLifetimeSpend(BigDecimal lifetimeSpend) { this.lifetimeSpend = lifetimeSpend; }
+
+    public List<String> getUnavailable() { return unavailable; }
+    public void setUnavailable(List<String> unavailable) { this.unavailable = unavailable; }
+}
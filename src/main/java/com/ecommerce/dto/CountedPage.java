@@ -0,0 +1,40 @@
+package com.ecommerce.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page whose total was produced by one of several count strategies. The strategy is serialized
+ * next to totalElements so clients know whether the total is exact.
+ */
+public class CountedPage<T> extends PageImpl<T> {
+
+    public enum CountStrategy {
+        // COUNT(*) on every request
+        EXACT,
+        // Exact count reused until a write or the TTL expires
+        CACHED,
+        // Table statistics or the in-memory catalog index, no query on the table
+        ESTIMATED
+    }
+
+    private final CountStrategy countStrategy;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountStrategy countStrategy) {
+        super(content, pageable, total);
+        this.countStrategy = countStrategy;
+    }
+
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+    @Override
+    public <U> CountedPage<U> map(Function<? super T, ? extends U> converter) {
+        List<U> mapped = getContent().stream().<U>map(converter).toList();
+        return new CountedPage<>(mapped, getPageable(), getTotalElements(), countStrategy);
+    }
+}
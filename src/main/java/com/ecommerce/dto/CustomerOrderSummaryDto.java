@@ -0,0 +1,34 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class CustomerOrderSummaryDto {
+
+    private Long customerId;
+    private Long orderCount;
+    private BigDecimal lifetimeSpend;
+    private LocalDateTime lastOrderDate;
+
+    public CustomerOrderSummaryDto() {}
+
+    public CustomerOrderSummaryDto(Long customerId, Long orderCount, BigDecimal lifetimeSpend, LocalDateTime lastOrderDate) {
+        this.customerId = customerId;
+        this.orderCount = orderCount;
+        this.lifetimeSpend = lifetimeSpend;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getLifetimeSpend() { return lifetimeSpend; }
+    public void setLifetimeSpend(BigDecimal lifetimeSpend) { this.lifetimeSpend = lifetimeSpend; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+}
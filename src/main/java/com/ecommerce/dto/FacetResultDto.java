@@ -0,0 +1,75 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FacetResultDto {
+
+    private long totalMatches;
+    private List<CategoryFacet> categories = new ArrayList<>();
+    private List<PriceBandFacet> priceBands = new ArrayList<>();
+    private long inStock;
+    private long outOfStock;
+
+    public FacetResultDto() {}
+
+    // Category facet value with the number of products matching the other filters
+    public static class CategoryFacet {
+        private String category;
+        private long count;
+
+        public CategoryFacet() {}
+
+        public CategoryFacet(String category, long count) {
+            this.category = category;
+            this.count = count;
+        }
+
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+
+    // Price band facet value, maxPrice is exclusive and null for the open-ended top band
+    public static class PriceBandFacet {
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private long count;
+
+        public PriceBandFacet() {}
+
+        public PriceBandFacet(BigDecimal minPrice, BigDecimal maxPrice, long count) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.count = count;
+        }
+
+        public BigDecimal getMinPrice() { return minPrice; }
+        public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+        public BigDecimal getMaxPrice() { return maxPrice; }
+        public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+
+    // Getters and Setters
+    public long getTotalMatches() { return totalMatches; }
+    public void setTotalMatches(long totalMatches) { this.totalMatches = totalMatches; }
+
+    public List<CategoryFacet> getCategories() { return categories; }
+    public void setCategories(List<CategoryFacet> categories) { this.categories = categories; }
+
+    public List<PriceBandFacet> getPriceBands() { return priceBands; }
+    public void setPriceBands(List<PriceBandFacet> priceBands) { this.priceBands = priceBands; }
+
+    public long getInStock() { return inStock; }
+    public void setInStock(long inStock) { this.inStock = inStock; }
+
+    public long getOutOfStock() { return outOfStock; }
+    public void setOutOfStock(long outOfStock) { this.outOfStock = outOfStock; }
+}
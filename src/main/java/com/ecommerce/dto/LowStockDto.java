@@ -0,0 +1,36 @@
+package com.ecommerce.dto;
+
+public class LowStockDto {
+
+    private Long productId;
+    private String productName;
+    private String category;
+    private Integer stockQuantity;
+    private Integer threshold;
+
+    public LowStockDto() {}
+
+    public LowStockDto(Long productId, String productName, String category, Integer stockQuantity, Integer threshold) {
+        this.productId = productId;
+        this.productName = productName;
+        this.category = category;
+        this.stockQuantity = stockQuantity;
+        this.threshold = threshold;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+
+    public Integer getThreshold() { return threshold; }
+    public void setThreshold(Integer threshold) { this.threshold = threshold; }
+}
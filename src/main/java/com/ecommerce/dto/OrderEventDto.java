@@ -0,0 +1,45 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderEvent;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderEventDto {
+
+    private Long id;
+    private Long orderId;
+    private Long customerId;
+    private OrderEvent.Type type;
+    private Order.OrderStatus previousStatus;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+
+    public OrderEventDto() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public OrderEvent.Type getType() { return type; }
+    public void setType(OrderEvent.Type type) { this.type = type; }
+
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Order.OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+public class OrderHistoryDto {
+
+    private CustomerOrderSummaryDto summary;
+    private List<OrderDto> orders;
+    // Pass back as ?cursor= for the next (older) page; null on the last page
+    private String nextCursor;
+
+    public OrderHistoryDto() {}
+
+    public OrderHistoryDto(CustomerOrderSummaryDto summary, List<OrderDto> orders, String nextCursor) {
+        this.summary = summary;
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public CustomerOrderSummaryDto getSummary() { return summary; }
+    public void setSummary(CustomerOrderSummaryDto summary) { this.summary = summary; }
+
+    public List<OrderDto> getOrders() { return orders; }
+    public void setOrders(List<OrderDto> orders) { this.orders = orders; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.OrderRequest;
+import java.time.LocalDateTime;
+
+public class OrderRequestDto {
+
+    private String reference;
+    private OrderRequest.Status status;
+    private Long orderId;
+    private String error;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+
+    public OrderRequestDto() {}
+
+    // Getters and Setters
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public OrderRequest.Status getStatus() { return status; }
+    public void setStatus(OrderRequest.Status status) { this.status = status; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
+    public LocalDateTime getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(LocalDateTime updatedDate) { this.updatedDate = updatedDate; }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+public class PriceRangePageDto {
+
+    private List<ProductDto> items;
+    private String nextCursor;
+
+    public PriceRangePageDto() {}
+
+    public PriceRangePageDto(List<ProductDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<ProductDto> getItems() { return items; }
+    public void setItems(List<ProductDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+public class ProductLookupDto {
+
+    @NotEmpty(message = "Product ids are required")
+    @Size(max = 500, message = "At most 500 product ids can be requested at once")
+    private List<@NotNull Long> ids;
+
+    public ProductLookupDto() {}
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
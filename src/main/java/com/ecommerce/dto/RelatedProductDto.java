@@ -0,0 +1,21 @@
+package com.ecommerce.dto;
+
+public class RelatedProductDto {
+
+    private ProductDto product;
+    private Integer timesBoughtTogether;
+
+    public RelatedProductDto() {}
+
+    public RelatedProductDto(ProductDto product, Integer timesBoughtTogether) {
+        this.product = product;
+        this.timesBoughtTogether = timesBoughtTogether;
+    }
+
+    // Getters and Setters
+    public ProductDto getProduct() { return product; }
+    public void setProduct(ProductDto product) { this.product = product; }
+
+    public Integer getTimesBoughtTogether() { return timesBoughtTogether; }
+    public void setTimesBoughtTogether(Integer timesBoughtTogether) { this.timesBoughtTogether = timesBoughtTogether; }
+}
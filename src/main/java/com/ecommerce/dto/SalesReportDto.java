@@ -0,0 +1,44 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class SalesReportDto {
+
+    private LocalDate date;
+    private String key;
+    private String label;
+    private BigDecimal revenue;
+    private Long units;
+    private Long orderCount;
+
+    public SalesReportDto() {}
+
+    public SalesReportDto(LocalDate date, String key, String label, BigDecimal revenue, Long units, Long orderCount) {
+        this.date = date;
+        this.key = key;
+        this.label = label;
+        this.revenue = revenue;
+        this.units = units;
+        this.orderCount = orderCount;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getLabel() { return label; }
+    public void setLabel(String label) { this.label = label; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.dto;
+
+public class TopSellerDto {
+
+    private Long productId;
+    private String productName;
+    private String category;
+    private Long unitsSold;
+
+    public TopSellerDto() {}
+
+    public TopSellerDto(Long productId, String productName, String category, Long unitsSold) {
+        this.productId = productId;
+        this.productName = productName;
+        this.category = category;
+        this.unitsSold = unitsSold;
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.event;
+
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published when an order is created or changes status. It carries a detached snapshot of the order
+ * so after-commit listeners never touch lazy associations outside the transaction.
+ */
+public class OrderChangedEvent {
+
+    private final Long orderId;
+    private final Long customerId;
+    private final LocalDateTime orderDate;
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus status;
+    private final Money totalAmount;
+    private final List<Line> lines;
+    private final boolean stockRestored;
+
+    public OrderChangedEvent(Long orderId, Long customerId, LocalDateTime orderDate, Order.OrderStatus previousStatus,
+                             Order.OrderStatus status, Money totalAmount, List<Line> lines) {
+        this(orderId, customerId, orderDate, previousStatus, status, totalAmount, lines, false);
+    }
+
+    public OrderChangedEvent(Long orderId, Long customerId, LocalDateTime orderDate, Order.OrderStatus previousStatus,
+                             Order.OrderStatus status, Money totalAmount, List<Line> lines, boolean stockRestored) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.lines = lines;
+        this.stockRestored = stockRestored;
+    }
+
+    // previousStatus is null for a newly created order
+    public static OrderChangedEvent of(Order order, Order.OrderStatus previousStatus) {
+        return of(order, previousStatus, false);
+    }
+
+    // A cancellation that put the items back into stock
+    public static OrderChangedEvent cancelled(Order order, Order.OrderStatus previousStatus) {
+        return of(order, previousStatus, true);
+    }
+
+    private static OrderChangedEvent of(Order order, Order.OrderStatus previousStatus, boolean stockRestored) {
+        List<Line> lines = new ArrayList<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                lines.add(new Line(item.getProduct().getId(), item.getProduct().getName(), item.getProduct().getCategory(),
+                        item.getQuantity(), item.getSubtotal()));
+            }
+        }
+        return new OrderChangedEvent(order.getId(), order.getCustomer().getId(), order.getOrderDate(), previousStatus,
+                order.getStatus(), order.getTotalAmount(), lines, stockRestored);
+    }
+
+    public boolean isCreated() { return previousStatus == null; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getCustomerId() { return customerId; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+
+    public Order.OrderStatus getStatus() { return status; }
+
+    public Money getTotalAmount() { return totalAmount; }
+
+    public List<Line> getLines() { return lines; }
+
+    public boolean isStockRestored() { return stockRestored; }
+
+    public static class Line {
+        private final Long productId;
+        private final String productName;
+        private final String category;
+        private final int quantity;
+        private final Money subtotal;
+
+        public Line(Long productId, String productName, String category, int quantity, Money subtotal) {
+            this.productId = productId;
+            this.productName = productName;
+            this.category = category;
+            this.quantity = quantity;
+            this.subtotal = subtotal;
+        }
+
+        public Long getProductId() { return productId; }
+
+        public String getProductName() { return productName; }
+
+        public String getCategory() { return category; }
+
+        public int getQuantity() { return quantity; }
+
+        public Money getSubtotal() { return subtotal; }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.event;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Published whenever a product row is written (create, update, stock change or delete).
+ * Listeners that keep in-memory views of the catalog react to it after the transaction commits.
+ */
+public class ProductChangedEvent {
+
+    private final Product product;
+    private final boolean deleted;
+    // Whether the product may have entered or left a listing, category or search result
+    private final boolean listingChanged;
+
+    public ProductChangedEvent(Product product, boolean deleted, boolean listingChanged) {
+        this.product = product;
+        this.deleted = deleted;
+        this.listingChanged = listingChanged;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product, false, true);
+    }
+
+    // An update; listingChanged when the name, description or category changed
+    public static ProductChangedEvent updated(Product product, boolean listingChanged) {
+        return new ProductChangedEvent(product, false, listingChanged);
+    }
+
+    public static ProductChangedEvent stockChanged(Product product) {
+        return new ProductChangedEvent(product, false, false);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(product, true, true);
+    }
+
+    public Product getProduct() { return product; }
+
+    public boolean isDeleted() { return deleted; }
+
+    public boolean isListingChanged() { return listingChanged; }
+}
@@ -19,6 +19,12 @@ public class CustomExceptions {
             super(message);
         }
     }
+
+    public static class UnprocessableEntityException extends RuntimeException {
+        public UnprocessableEntityException(String message) {
+            super(message);
+        }
+    }
 }
 
 class ResourceNotFoundException extends RuntimeException {
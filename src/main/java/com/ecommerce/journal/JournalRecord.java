@@ -0,0 +1,138 @@
+package com.ecommerce.journal;
+
+import com.ecommerce.model.Order;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One order journal entry. On disk every type has a fixed layout after a common
+ * type (1 byte), timestamp (8) and order id (8) prefix; statuses are stored as their ordinal,
+ * so new order statuses must only ever be added at the end of the enum.
+ */
+public final class JournalRecord {
+
+    public enum Type {
+        ORDER_CREATED(1, 8 + 1 + 8),
+        ORDER_STATUS_CHANGED(2, 1 + 1),
+        ORDER_CANCELLED(3, 1),
+        STOCK_DELTA(4, 8 + 4);
+
+        private final byte code;
+        private final int bodySize;
+
+        Type(int code, int bodySize) {
+            this.code = (byte) code;
+            this.bodySize = bodySize;
+        }
+
+        static Type ofCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown journal record type " + code);
+        }
+    }
+
+    static final int PREFIX_SIZE = 1 + 8 + 8;
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final Type type;
+    private final long timestamp;
+    private final long orderId;
+    private final long customerId;
+    private final long productId;
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus status;
+    private final int quantityDelta;
+    private final long amountCents;
+    // Position in the journal, set for records read back; -1 for records not yet appended
+    private final long offset;
+
+    private JournalRecord(Type type, long timestamp, long orderId, long customerId, long productId,
+                          Order.OrderStatus previousStatus, Order.OrderStatus status, int quantityDelta,
+                          long amountCents, long offset) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.productId = productId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.quantityDelta = quantityDelta;
+        this.amountCents = amountCents;
+        this.offset = offset;
+    }
+
+    public static JournalRecord orderCreated(long timestamp, long orderId, long customerId, Order.OrderStatus status,
+                                             long totalCents) {
+        return new JournalRecord(Type.ORDER_CREATED, timestamp, orderId, customerId, 0, null, status, 0, totalCents, -1);
+    }
+
+    public static JournalRecord statusChanged(long timestamp, long orderId, Order.OrderStatus previousStatus,
+                                              Order.OrderStatus status) {
+        return new JournalRecord(Type.ORDER_STATUS_CHANGED, timestamp, orderId, 0, 0, previousStatus, status, 0, 0, -1);
+    }
+
+    public static JournalRecord orderCancelled(long timestamp, long orderId, Order.OrderStatus previousStatus) {
+        return new JournalRecord(Type.ORDER_CANCELLED, timestamp, orderId, 0, 0, previousStatus,
+                Order.OrderStatus.CANCELLED, 0, 0, -1);
+    }
+
+    public static JournalRecord stockDelta(long timestamp, long orderId, long productId, int quantityDelta) {
+        return new JournalRecord(Type.STOCK_DELTA, timestamp, orderId, 0, productId, null, null, quantityDelta, 0, -1);
+    }
+
+    int encodedSize() {
+        return PREFIX_SIZE + type.bodySize;
+    }
+
+    void encode(ByteBuffer target) {
+        target.put(type.code).putLong(timestamp).putLong(orderId);
+        switch (type) {
+            case ORDER_CREATED -> target.putLong(customerId).put((byte) status.ordinal()).putLong(amountCents);
+            case ORDER_STATUS_CHANGED -> target.put((byte) previousStatus.ordinal()).put((byte) status.ordinal());
+            case ORDER_CANCELLED -> target.put((byte) previousStatus.ordinal());
+            case STOCK_DELTA -> target.putLong(productId).putInt(quantityDelta);
+        }
+    }
+
+    static JournalRecord decode(ByteBuffer source, long offset) {
+        Type type = Type.ofCode(source.get());
+        long timestamp = source.getLong();
+        long orderId = source.getLong();
+        return switch (type) {
+            case ORDER_CREATED -> new JournalRecord(type, timestamp, orderId, source.getLong(), 0, null,
+                    STATUSES[source.get()], 0, source.getLong(), offset);
+            case ORDER_STATUS_CHANGED -> new JournalRecord(type, timestamp, orderId, 0, 0, STATUSES[source.get()],
+                    STATUSES[source.get()], 0, 0, offset);
+            case ORDER_CANCELLED -> new JournalRecord(type, timestamp, orderId, 0, 0, STATUSES[source.get()],
+                    Order.OrderStatus.CANCELLED, 0, 0, offset);
+            case STOCK_DELTA -> new JournalRecord(type, timestamp, orderId, 0, source.getLong(), null, null,
+                    source.getInt(), 0, offset);
+        };
+    }
+
+    public Type getType() { return type; }
+
+    // Epoch milliseconds at which the change was journaled
+    public long getTimestamp() { return timestamp; }
+
+    public long getOrderId() { return orderId; }
+
+    public long getCustomerId() { return customerId; }
+
+    public long getProductId() { return productId; }
+
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+
+    public Order.OrderStatus getStatus() { return status; }
+
+    public int getQuantityDelta() { return quantityDelta; }
+
+    public long getAmountCents() { return amountCents; }
+
+    public long getOffset() { return offset; }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file. It starts with a header (magic, version, base offset) followed by
+ * frames of [payload length][CRC32C of payload][payload]. The file is zero-filled when created, so a zero length
+ * marks the end of the written frames. A spare segment is created ahead of time with a base offset of -1 and
+ * only gets its base offset when it becomes the active segment.
+ */
+final class JournalSegment {
+
+    static final int HEADER_SIZE = 16;
+    static final int FRAME_OVERHEAD = 8;
+
+    private static final int MAGIC = 0x4F4A524E;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".journal";
+
+    private final Path path;
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private long baseOffset;
+    // End of the last complete frame; written by the appender, read by replays
+    private volatile int end = HEADER_SIZE;
+
+    private JournalSegment(Path path, long sequence, MappedByteBuffer buffer, long baseOffset) {
+        this.path = path;
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.baseOffset = baseOffset;
+    }
+
+    static JournalSegment create(Path directory, long sequence, int size) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, -1);
+            return new JournalSegment(path, sequence, buffer, -1);
+        }
+    }
+
+    /**
+     * Maps an existing segment and finds the end of its frames. Only the last segment can have been cut off by a
+     * crash: its frames are checked and a torn tail is zeroed, earlier segments are checked when they are read.
+     */
+    static JournalSegment open(Path path, boolean last) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an order journal segment: " + path);
+            }
+            JournalSegment segment = new JournalSegment(path, sequenceOf(path), buffer, buffer.getLong(8));
+            segment.recover(last);
+            return segment;
+        }
+    }
+
+    // Base offset from a segment's header without mapping it; -1 for a spare that was never activated
+    static long readBaseOffset(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            return header.position() < HEADER_SIZE || header.getInt(0) != MAGIC ? -1 : header.getLong(8);
+        }
+    }
+
+    static boolean isSegment(Path path) {
+        return path.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    void activate(long baseOffset) {
+        this.baseOffset = baseOffset;
+        buffer.putLong(8, baseOffset);
+    }
+
+    boolean hasRoom(int frameBytes) {
+        return end + frameBytes + 4 <= buffer.capacity();
+    }
+
+    /**
+     * Appends the frames in source, which hold consecutive [length][crc][payload] entries, and returns the journal
+     * offset after them. Only the appender thread calls this, under the journal's lock.
+     */
+    long append(ByteBuffer source) {
+        int position = end;
+        buffer.put(position, source, source.position(), source.remaining());
+        end = position + source.remaining();
+        return offsetAt(end);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // Reads the frame at a position of this segment, or returns null at the end of the written frames
+    JournalRecord read(int position) {
+        if (position + FRAME_OVERHEAD > end) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        int checksum = buffer.getInt(position + 4);
+        ByteBuffer payload = buffer.slice(position + FRAME_OVERHEAD, length);
+        if (checksum(payload) != checksum) {
+            throw new IllegalStateException("Corrupt order journal record at offset " + offsetAt(position) + " in " + path);
+        }
+        return JournalRecord.decode(payload, offsetAt(position));
+    }
+
+    int frameSizeAt(int position) {
+        return FRAME_OVERHEAD + buffer.getInt(position);
+    }
+
+    static int checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    long offsetAt(int position) {
+        return baseOffset + position - HEADER_SIZE;
+    }
+
+    int positionOf(long offset) {
+        return (int) (offset - baseOffset) + HEADER_SIZE;
+    }
+
+    long getBaseOffset() { return baseOffset; }
+
+    long getEndOffset() { return offsetAt(end); }
+
+    long getSequence() { return sequence; }
+
+    int getCapacity() { return buffer.capacity(); }
+
+    int getEnd() { return end; }
+
+    private void recover(boolean verify) {
+        int position = HEADER_SIZE;
+        while (position + FRAME_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + FRAME_OVERHEAD + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + FRAME_OVERHEAD, length);
+            if (verify && checksum(payload) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += FRAME_OVERHEAD + length;
+        }
+        // Whatever follows was never reported durable; clear it so it cannot be mistaken for frames later
+        for (int i = position; verify && i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        end = position;
+    }
+}
@@ -0,0 +1,347 @@
+package com.ecommerce.journal;
+
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only journal of committed order changes (app.journal.enabled) for audit and replay.
+ * Records are copied into memory-mapped segment files, so appending never waits for the disk; a flusher
+ * thread forces the written pages every fsync-interval-ms, making all records appended in that interval
+ * durable with one fsync. Segments roll over into a spare file prepared in the background, and the oldest
+ * are deleted beyond max-segments. Offsets are byte positions in the journal and stay valid across restarts.
+ */
+@Component
+public class OrderJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+    @Value("${app.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.journal.directory:data/order-journal}")
+    private String directory;
+
+    @Value("${app.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.journal.fsync-interval-ms:50}")
+    private long fsyncIntervalMs;
+
+    @Value("${app.journal.max-segments:32}")
+    private int maxSegments;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // All segments by base offset; replays look segments up here without taking the lock
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    // Guarded by lock: the segment being appended to, rolled segments not yet forced, the next file sequence
+    private volatile JournalSegment active;
+    private final List<JournalSegment> sealed = new ArrayList<>();
+    private long nextSequence;
+    private volatile JournalSegment spare;
+
+    private volatile long endOffset;
+    private volatile long durableOffset;
+    private Path path;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        path = Paths.get(directory);
+        Files.createDirectories(path);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(path)) {
+            files = listing.filter(JournalSegment::isSegment).toList();
+        }
+        // Segments in journal order; spares that were never used are removed
+        TreeMap<Long, Path> byBaseOffset = new TreeMap<>();
+        for (Path file : files) {
+            nextSequence = Math.max(nextSequence, JournalSegment.sequenceOf(file) + 1);
+            long baseOffset = JournalSegment.readBaseOffset(file);
+            if (baseOffset < 0) {
+                Files.delete(file);
+            } else {
+                byBaseOffset.put(baseOffset, file);
+            }
+        }
+        for (Map.Entry<Long, Path> entry : byBaseOffset.entrySet()) {
+            JournalSegment segment = JournalSegment.open(entry.getValue(), entry.getKey().equals(byBaseOffset.lastKey()));
+            segments.put(segment.getBaseOffset(), segment);
+            active = segment;
+        }
+        if (active == null) {
+            active = JournalSegment.create(path, nextSequence++, segmentSize());
+            active.activate(0);
+            segments.put(0L, active);
+        }
+        endOffset = active.getEndOffset();
+        durableOffset = endOffset;
+        logger.info("Order journal opened in {} with {} segments, offsets {} to {}",
+                path.toAbsolutePath(), segments.size(), getStartOffset(), endOffset);
+
+        running = true;
+        flusher = new Thread(this::flushPeriodically, "order-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Journals committed order changes; runs on the committing thread but only copies into the mapped segment
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<JournalRecord> records = new ArrayList<>();
+        if (event.isCreated()) {
+            records.add(JournalRecord.orderCreated(now, event.getOrderId(), event.getCustomerId(), event.getStatus(),
+                    event.getTotalAmount().getCents()));
+            event.getLines().forEach(line ->
+                    records.add(JournalRecord.stockDelta(now, event.getOrderId(), line.getProductId(), -line.getQuantity())));
+        } else if (event.getStatus() == Order.OrderStatus.CANCELLED) {
+            records.add(JournalRecord.orderCancelled(now, event.getOrderId(), event.getPreviousStatus()));
+            if (event.isStockRestored()) {
+                event.getLines().forEach(line ->
+                        records.add(JournalRecord.stockDelta(now, event.getOrderId(), line.getProductId(), line.getQuantity())));
+            }
+        } else {
+            records.add(JournalRecord.statusChanged(now, event.getOrderId(), event.getPreviousStatus(), event.getStatus()));
+        }
+        try {
+            append(records);
+        } catch (RuntimeException e) {
+            // The change is committed either way; the journal must not fail the request
+            logger.warn("Could not journal change of order {}: {}", event.getOrderId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Appends records as one contiguous run and returns the offset after the last of them.
+     * They are durable once getDurableOffset() has reached that offset.
+     */
+    public long append(List<JournalRecord> records) {
+        if (!enabled) {
+            throw new IllegalStateException("Order journal is disabled");
+        }
+        int size = 0;
+        for (JournalRecord record : records) {
+            size += JournalSegment.FRAME_OVERHEAD + record.encodedSize();
+        }
+        ByteBuffer frames = ByteBuffer.allocate(size);
+        for (JournalRecord record : records) {
+            int start = frames.position();
+            frames.position(start + JournalSegment.FRAME_OVERHEAD);
+            record.encode(frames);
+            ByteBuffer payload = frames.slice(start + JournalSegment.FRAME_OVERHEAD, record.encodedSize());
+            frames.putInt(start, record.encodedSize()).putInt(start + 4, JournalSegment.checksum(payload));
+        }
+        frames.flip();
+
+        lock.lock();
+        try {
+            if (!active.hasRoom(size)) {
+                roll(size);
+            }
+            endOffset = active.append(frames);
+            return endOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to maxRecords records from fromOffset on and returns the offset to continue from.
+     * fromOffset must be 0, the offset of a record, or a value returned by append or replay; offsets before
+     * the oldest retained segment start at its beginning.
+     */
+    public long replay(long fromOffset, int maxRecords, Consumer<JournalRecord> consumer) {
+        if (!enabled) {
+            throw new IllegalStateException("Order journal is disabled");
+        }
+        long offset = Math.max(fromOffset, getStartOffset());
+        int read = 0;
+        while (read < maxRecords) {
+            Map.Entry<Long, JournalSegment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                break;
+            }
+            JournalSegment segment = entry.getValue();
+            int position = segment.positionOf(offset);
+            if (position >= segment.getEnd()) {
+                Map.Entry<Long, JournalSegment> next = segments.higherEntry(entry.getKey());
+                if (next == null) {
+                    break;
+                }
+                offset = next.getKey();
+                continue;
+            }
+            JournalRecord record = segment.read(position);
+            if (record == null) {
+                break;
+            }
+            consumer.accept(record);
+            offset += segment.frameSizeAt(position);
+            read++;
+        }
+        return offset;
+    }
+
+    public long replay(long fromOffset, Consumer<JournalRecord> consumer) {
+        return replay(fromOffset, Integer.MAX_VALUE, consumer);
+    }
+
+    // Offset of the oldest retained record
+    public long getStartOffset() {
+        return segments.isEmpty() ? 0 : segments.firstKey();
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    // Records before this offset have been forced to disk
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    private void roll(int size) {
+        if (JournalSegment.HEADER_SIZE + size + 4 > segmentSize()) {
+            throw new IllegalArgumentException("Journal records of " + size + " bytes exceed the segment size");
+        }
+        JournalSegment next = spare;
+        spare = null;
+        if (next == null) {
+            next = createSegment();
+        }
+        next.activate(active.getEndOffset());
+        sealed.add(active);
+        segments.put(next.getBaseOffset(), next);
+        active = next;
+    }
+
+    private void flushPeriodically() {
+        while (running) {
+            try {
+                Thread.sleep(fsyncIntervalMs);
+                flush();
+                prepareSpare();
+                dropOldSegments();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Order journal flush failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // One fsync for everything appended since the last one
+    private void flush() {
+        List<JournalSegment> rolled;
+        JournalSegment current;
+        long target;
+        lock.lock();
+        try {
+            target = endOffset;
+            current = active;
+            rolled = new ArrayList<>(sealed);
+            sealed.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (target == durableOffset && rolled.isEmpty()) {
+            return;
+        }
+        rolled.forEach(JournalSegment::force);
+        current.force();
+        durableOffset = target;
+    }
+
+    // Creates the next segment file once the active one is half full, so rolling never waits for the file system
+    private void prepareSpare() {
+        JournalSegment current = active;
+        if (spare == null && current.getEnd() > current.getCapacity() / 2) {
+            JournalSegment created = createSegment();
+            lock.lock();
+            try {
+                spare = created;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void dropOldSegments() {
+        while (segments.size() > maxSegments) {
+            Map.Entry<Long, JournalSegment> oldest = segments.firstEntry();
+            if (oldest.getValue() == active) {
+                return;
+            }
+            segments.remove(oldest.getKey());
+            try {
+                oldest.getValue().delete();
+            } catch (IOException e) {
+                logger.warn("Could not delete order journal segment: {}", e.getMessage());
+            }
+        }
+    }
+
+    private JournalSegment createSegment() {
+        long sequence;
+        lock.lock();
+        try {
+            sequence = nextSequence++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return JournalSegment.create(path, sequence, segmentSize());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create order journal segment", e);
+        }
+    }
+
+    private int segmentSize() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Per-customer order aggregates, maintained in the same transaction as the order changes
+@Entity
+@Table(name = "customer_order_summaries")
+public class CustomerOrderSummary {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    // Orders that are not cancelled
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private Money lifetimeSpend;
+
+    private LocalDateTime lastOrderDate;
+
+    public CustomerOrderSummary() {}
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Money getLifetimeSpend() { return lifetimeSpend; }
+    public void setLifetimeSpend(Money lifetimeSpend) { this.lifetimeSpend = lifetimeSpend; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+}
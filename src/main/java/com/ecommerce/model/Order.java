@@ -2,12 +2,11 @@ package com.ecommerce.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_customer_date", columnList = "customer_id, order_date, id"))
 public class Order {
     
     @Id
@@ -26,9 +25,9 @@ public class Order {
     private OrderStatus status = OrderStatus.PENDING;
     
     @NotNull(message = "Total amount is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Total amount must be greater than 0")
+    @PositiveMoney(message = "Total amount must be greater than 0")
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
@@ -39,7 +38,7 @@ public class Order {
     
     public Order() {}
     
-    public Order(Customer customer, BigDecimal totalAmount) {
+    public Order(Customer customer, Money totalAmount) {
         this.customer = customer;
         this.totalAmount = totalAmount;
         this.status = OrderStatus.PENDING;
@@ -63,8 +62,8 @@ public class Order {
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
     
-    public BigDecimal getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public Money getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Money totalAmount) { this.totalAmount = totalAmount; }
     
     public List<OrderItem> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItem> orderItems) { this.orderItems = orderItems; }
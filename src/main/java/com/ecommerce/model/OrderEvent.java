@@ -0,0 +1,74 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Outbox row for an order lifecycle change, written in the transaction that made the change; the id is the stream offset
+@Entity
+@Table(name = "order_events", indexes = @Index(name = "idx_order_events_occurred_at", columnList = "occurredAt"))
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(nullable = false, updatable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16, updatable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, updatable = false)
+    private Order.OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16, updatable = false)
+    private Order.OrderStatus status;
+
+    @Column(precision = 10, scale = 2, updatable = false)
+    private Money totalAmount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        CREATED, STATUS_CHANGED, CANCELLED
+    }
+
+    public OrderEvent() {}
+
+    @PrePersist
+    protected void onCreate() {
+        occurredAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Order.OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Order.OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+
+    public Money getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Money totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
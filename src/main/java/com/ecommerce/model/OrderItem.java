@@ -2,7 +2,6 @@ package com.ecommerce.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 @Entity
 @Table(name = "order_items")
@@ -26,30 +25,30 @@ public class OrderItem {
     private Integer quantity;
     
     @NotNull(message = "Unit price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Unit price must be greater than 0")
+    @PositiveMoney(message = "Unit price must be greater than 0")
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
     
     @NotNull(message = "Subtotal is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Subtotal must be greater than 0")
+    @PositiveMoney(message = "Subtotal must be greater than 0")
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal subtotal;
+    private Money subtotal;
     
     public OrderItem() {}
     
-    public OrderItem(Order order, Product product, Integer quantity, BigDecimal unitPrice) {
+    public OrderItem(Order order, Product product, Integer quantity, Money unitPrice) {
         this.order = order;
         this.product = product;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
-        this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.subtotal = unitPrice.times(quantity);
     }
     
     @PrePersist
     @PreUpdate
     private void calculateSubtotal() {
         if (unitPrice != null && quantity != null) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.subtotal = unitPrice.times(quantity);
         }
     }
     
@@ -69,12 +68,12 @@ public class OrderItem {
         calculateSubtotal();
     }
     
-    public BigDecimal getUnitPrice() { return unitPrice; }
-    public void setUnitPrice(BigDecimal unitPrice) { 
+    public Money getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(Money unitPrice) { 
         this.unitPrice = unitPrice;
         calculateSubtotal();
     }
     
-    public BigDecimal getSubtotal() { return subtotal; }
-    public void setSubtotal(BigDecimal subtotal) { this.subtotal = subtotal; }
+    public Money getSubtotal() { return subtotal; }
+    public void setSubtotal(Money subtotal) { this.subtotal = subtotal; }
 }
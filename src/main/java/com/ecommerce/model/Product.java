@@ -2,11 +2,10 @@ package com.ecommerce.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_updated_date", columnList = "updatedDate"))
 public class Product {
     
     @Id
@@ -21,9 +20,9 @@ public class Product {
     private String description;
     
     @NotNull(message = "Price is required")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    @PositiveMoney(message = "Price must be greater than 0")
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    private Money price;
     
     @NotBlank(message = "Category is required")
     @Column(nullable = false)
@@ -42,7 +41,7 @@ public class Product {
     
     public Product() {}
     
-    public Product(String name, String description, BigDecimal price, String category, Integer stockQuantity) {
+    public Product(String name, String description, Money price, String category, Integer stockQuantity) {
         this.name = name;
         this.description = description;
         this.price = price;
@@ -71,8 +70,8 @@ public class Product {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public BigDecimal getPrice() { return price; }
-    public void setPrice(BigDecimal price) { this.price = price; }
+    public Money getPrice() { return price; }
+    public void setPrice(Money price) { this.price = price; }
     
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
@@ -0,0 +1,62 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sales_rollups", columnNames = {"dimension", "sales_date", "dimension_key"}))
+public class SalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Dimension dimension;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    // "all" for DAY rows, the category name or the product id otherwise
+    @Column(name = "dimension_key", nullable = false, length = 191)
+    private String dimensionKey;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private Money revenue;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    public enum Dimension {
+        DAY, CATEGORY, PRODUCT
+    }
+
+    public SalesRollup() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Dimension getDimension() { return dimension; }
+    public void setDimension(Dimension dimension) { this.dimension = dimension; }
+
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public String getDimensionKey() { return dimensionKey; }
+    public void setDimensionKey(String dimensionKey) { this.dimensionKey = dimensionKey; }
+
+    public Money getRevenue() { return revenue; }
+    public void setRevenue(Money revenue) { this.revenue = revenue; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// A change to one sales_rollups row written with the order change itself, folded into the rollup by the next flush
+@Entity
+@Table(name = "sales_rollup_deltas", indexes = @Index(name = "idx_sales_rollup_deltas_sales_date", columnList = "sales_date"))
+public class SalesRollupDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SalesRollup.Dimension dimension;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "dimension_key", nullable = false, length = 191)
+    private String dimensionKey;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private Money revenue;
+
+    @Column(nullable = false)
+    private Long units;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    public SalesRollupDelta() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public SalesRollup.Dimension getDimension() { return dimension; }
+    public void setDimension(SalesRollup.Dimension dimension) { this.dimension = dimension; }
+
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public String getDimensionKey() { return dimensionKey; }
+    public void setDimensionKey(String dimensionKey) { this.dimensionKey = dimensionKey; }
+
+    public Money getRevenue() { return revenue; }
+    public void setRevenue(Money revenue) { this.revenue = revenue; }
+
+    public Long getUnits() { return units; }
+    public void setUnits(Long units) { this.units = units; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Read-only, non-blocking catalog: the public product GET endpoints on WebFlux and R2DBC, for serving
+ * anonymous shoppers without a thread per request. It runs as its own process next to the servlet API,
+ * scans only this package and reads the same products table.
+ * The profile keeps these beans out of the servlet application, whose scan includes this package.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class
+})
+@Profile(ReactiveCatalogApplication.PROFILE)
+public class ReactiveCatalogApplication {
+
+    public static final String PROFILE = "reactive-catalog";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.dto.ProductDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Non-blocking counterparts of the public ProductController reads. Lists are plain arrays (or
+ * application/x-ndjson streams) of ProductDto rather than Page objects: a total would need a COUNT
+ * query per request, which is what this stack is meant to avoid.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/products")
+@Profile(ReactiveCatalogApplication.PROFILE)
+public class ReactiveProductController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "price", "price",
+            "category", "category",
+            "stockquantity", "stock_quantity",
+            "createddate", "created_date",
+            "updateddate", "updated_date");
+
+    private final ReactiveProductRepository productRepository;
+
+    public ReactiveProductController(ReactiveProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDto> getAllProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        String column = SORT_COLUMNS.get(sortBy.toLowerCase(Locale.ROOT));
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sortBy: " + sortBy);
+        }
+        String orderBy = column + (sortDir.equalsIgnoreCase("desc") ? " DESC" : " ASC") + (column.equals("id") ? "" : ", id");
+        return productRepository.findAll(orderBy, offset(page, size), limit(size));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDto>> getProductById(@PathVariable Long id) {
+        return productRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/category/{category}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDto> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return productRepository.findByCategory(category, offset(page, size), limit(size));
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductDto> searchProducts(
+            @RequestParam String searchTerm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return productRepository.search(searchTerm, offset(page, size), limit(size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<MessageResponse> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+    }
+
+    private static int limit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private static int offset(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        return Math.multiplyExact(page, size);
+    }
+
+    public static class MessageResponse {
+        private String message;
+
+        public MessageResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
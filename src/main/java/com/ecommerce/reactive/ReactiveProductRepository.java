@@ -0,0 +1,71 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.dto.ProductDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Product reads mapped straight from rows to ProductDto. Results are Flux streams, so rows are pulled
+ * from the driver only as fast as the response is written.
+ */
+@Repository
+@Profile(ReactiveCatalogApplication.PROFILE)
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "SELECT id, name, description, price, category, stock_quantity FROM products";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<ProductDto> findById(long id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toDto)
+                .one();
+    }
+
+    // orderBy must be a whitelisted column expression, it is concatenated into the statement
+    public Flux<ProductDto> findAll(String orderBy, int offset, int limit) {
+        return databaseClient.sql(COLUMNS + " ORDER BY " + orderBy + " LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    public Flux<ProductDto> findByCategory(String category, int offset, int limit) {
+        return databaseClient.sql(COLUMNS + " WHERE category = :category ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("category", category)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    // Same matching as ProductRepository.searchProducts
+    public Flux<ProductDto> search(String searchTerm, int offset, int limit) {
+        return databaseClient.sql(COLUMNS + " WHERE name LIKE :pattern OR description LIKE :pattern ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("pattern", "%" + searchTerm + "%")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    private static ProductDto toDto(Readable row) {
+        ProductDto dto = new ProductDto(row.get("name", String.class), row.get("description", String.class),
+                row.get("price", BigDecimal.class), row.get("category", String.class),
+                row.get("stock_quantity", Integer.class));
+        dto.setId(row.get("id", Long.class));
+        return dto;
+    }
+}
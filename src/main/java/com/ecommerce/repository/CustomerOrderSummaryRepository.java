@@ -0,0 +1,33 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.CustomerOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, Long> {
+
+    // Atomic additive update; lastOrderDate may be null when the change does not add an order
+    @Modifying
+    @Query(value = "INSERT INTO customer_order_summaries (customer_id, order_count, lifetime_spend, last_order_date) " +
+            "VALUES (:customerId, :orders, :spend, :lastOrderDate) ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), " +
+            "lifetime_spend = lifetime_spend + VALUES(lifetime_spend), " +
+            "last_order_date = COALESCE(GREATEST(last_order_date, VALUES(last_order_date)), last_order_date, VALUES(last_order_date))",
+            nativeQuery = true)
+    void applyDelta(@Param("customerId") Long customerId, @Param("orders") long orders,
+                    @Param("spend") BigDecimal spend, @Param("lastOrderDate") LocalDateTime lastOrderDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_order_summaries (customer_id, order_count, lifetime_spend, last_order_date) " +
+            "SELECT customer_id, SUM(status <> 'CANCELLED'), " +
+            "COALESCE(SUM(CASE WHEN status <> 'CANCELLED' THEN total_amount END), 0), MAX(order_date) " +
+            "FROM orders GROUP BY customer_id", nativeQuery = true)
+    int rebuildFromOrders();
+}
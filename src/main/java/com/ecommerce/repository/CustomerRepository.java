@@ -1,17 +1,32 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     Optional<Customer> findByEmail(String email);
     
+    Slice<Customer> findSliceBy(Pageable pageable);
+    
     boolean existsByEmail(String email);
     
     Optional<Customer> findByEmailAndPassword(String email, String password);
+    
+    // Forward-only cursor for full exports; exports run in the admin lane, whose pool sets useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Customer> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+
+    // Takes over a claim whose owner has not finished it in time; only one caller can win
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.createdDate = :now WHERE k.id = :id AND k.statusCode IS NULL AND k.createdDate < :staleBefore")
+    int reclaimStale(@Param("id") Long id, @Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    // Gives up a claim its owner still holds, marking it abandoned rather than deleting it
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.createdDate = :released WHERE k.id = :id AND k.statusCode IS NULL AND k.createdDate = :claimedAt")
+    int release(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt, @Param("released") LocalDateTime released);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.statusCode = :statusCode, k.location = :location, k.responseBody = :body WHERE k.id = :id")
+    int complete(@Param("id") Long id, @Param("statusCode") int statusCode, @Param("location") String location, @Param("body") String body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    @Query("SELECT e FROM OrderEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OrderEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT e FROM OrderEvent e WHERE e.id > :afterId AND e.id <= :upToId ORDER BY e.id")
+    List<OrderEvent> findBetween(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OrderEvent e")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.occurredAt < :before")
+    int deleteOccurredBefore(@Param("before") LocalDateTime before);
+}
@@ -4,9 +4,14 @@ import com.ecommerce.model.Order;
 import com.ecommerce.model.Order.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,9 +19,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Page<Order> findByCustomerId(Long customerId, Pageable pageable);
     
+    Slice<Order> findSliceBy(Pageable pageable);
+    
     List<Order> findByStatus(OrderStatus status);
     
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
     
     List<Order> findByCustomerIdOrderByOrderDateDesc(Long customerId);
+    
+    // Keyset pages of a customer's history, newest first; Pageable only carries the limit
+    List<Order> findByCustomerIdOrderByOrderDateDescIdDesc(Long customerId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId AND " +
+           "(o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findHistoryBefore(@Param("customerId") Long customerId, @Param("orderDate") LocalDateTime orderDate,
+                                  @Param("id") Long id, Pageable pageable);
+    
+    long countByCustomerIdAndStatusIn(Long customerId, Collection<OrderStatus> statuses);
 }
@@ -0,0 +1,43 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OrderRequest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, Long> {
+
+    Optional<OrderRequest> findByReference(String reference);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM OrderRequest r WHERE r.id = :id")
+    Optional<OrderRequest> findByIdForUpdate(@Param("id") Long id);
+
+    // Claims up to limit pending requests; rows locked by other workers are skipped, not waited for
+    @Query(value = "SELECT id FROM order_requests WHERE status = 'PENDING' ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> lockPendingIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = :status, r.updatedDate = :now WHERE r.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") OrderRequest.Status status, @Param("now") LocalDateTime now);
+
+    // Requests whose worker died mid-way go back to the queue
+    @Modifying
+    @Query("UPDATE OrderRequest r SET r.status = 'PENDING', r.updatedDate = :now " +
+           "WHERE r.status = 'PROCESSING' AND r.updatedDate < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OrderRequest r WHERE r.status IN ('PLACED', 'FAILED') AND r.updatedDate < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,24 +1,58 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.model.Money;
 import com.ecommerce.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Page<Product> findByCategory(String category, Pageable pageable);
     
+    // Slice variants fetch one extra row instead of running a COUNT query
+    Slice<Product> findSliceBy(Pageable pageable);
+    
+    Slice<Product> findSliceByCategory(String category, Pageable pageable);
+    
+    long countByCategory(String category);
+    
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm%")
     Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @Query("SELECT p FROM Product p WHERE p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm%")
+    Slice<Product> searchProductsSlice(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm%")
+    long countSearchResults(@Param("searchTerm") String searchTerm);
+    
     List<Product> findByStockQuantityLessThan(Integer threshold);
     
-    Page<Product> findByPriceBetween(java.math.BigDecimal minPrice, java.math.BigDecimal maxPrice, Pageable pageable);
+    Page<Product> findByPriceBetween(Money minPrice, Money maxPrice, Pageable pageable);
+    
+    // Forward-only cursor for full exports; exports run in the admin lane, whose pool sets useCursorFetch=true
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
+    
+    // Locks rows in id order, so concurrent callers locking overlapping sets cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
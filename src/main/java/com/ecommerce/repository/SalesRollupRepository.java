@@ -0,0 +1,16 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.SalesRollup;
+import com.ecommerce.model.SalesRollup.Dimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    List<SalesRollup> findByDimensionAndSalesDateBetweenOrderBySalesDateAscDimensionKeyAsc(
+            Dimension dimension, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit discovered with AIMD: every request that completes within the latency target while the
+ * limit is in use raises the limit by 1/limit (about one per round of requests), every slow or failed request
+ * multiplies it by the backoff ratio. Non-priority requests may only fill the limit up to its priority reserve.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final double priorityReserve;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // The limit as double bits, updated with compare-and-set
+    private final AtomicLong limitBits;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties.Group settings) {
+        if (settings.getMinLimit() < 1 || settings.getMaxLimit() < settings.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits need 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = settings.getMinLimit();
+        this.maxLimit = settings.getMaxLimit();
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLatencyTargetMs());
+        this.backoffRatio = settings.getBackoffRatio();
+        this.priorityReserve = settings.getPriorityReserve();
+        int initial = Math.max(minLimit, Math.min(maxLimit, settings.getInitialLimit()));
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initial));
+    }
+
+    public boolean tryAcquire(boolean priority) {
+        double limit = currentLimit();
+        int allowed = priority ? (int) limit : Math.max(1, (int) (limit * (1 - priorityReserve)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Ends an acquired request and feeds its latency into the limit
+    public void release(long latencyNanos, boolean failed) {
+        int before = inFlight.getAndDecrement();
+        if (failed || latencyNanos > latencyTargetNanos) {
+            update(limit -> Math.max(minLimit, limit * backoffRatio));
+        } else if (before * 2 >= currentLimit()) {
+            // Only grow while at least half the limit is in use; an idle limit proves nothing
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    // Ends an acquired request whose latency says nothing about load, such as a stream or an async request
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) currentLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private double currentLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load per endpoint group before authentication touches the database. Each group has its own
+ * adaptive limit; requests over it get 503 with Retry-After right away instead of queueing for threads
+ * and connections. Order placement is a priority request: it may use the orders group's reserved share.
+ * This is the first of two admission layers: it runs per URL group before authentication and adapts to
+ * latency, while LaneInterceptor then bounds the authenticated handlers of each lane with fixed permits.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public enum Group { CATALOG, ORDERS, ADMIN }
+
+    private static final RequestMatcher ADMIN = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/reports/**"),
+            new AntPathRequestMatcher("/api/orders", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/orders/status/**"),
+            new AntPathRequestMatcher("/api/orders/events"),
+            new AntPathRequestMatcher("/api/orders/*/status"),
+            new AntPathRequestMatcher("/api/customers", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/customers/export"),
+            new AntPathRequestMatcher("/api/products/export"),
+            new AntPathRequestMatcher("/api/products/import"),
+            new AntPathRequestMatcher("/api/products/low-stock/**"));
+
+    private static final RequestMatcher ORDERS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/orders/**"),
+            new AntPathRequestMatcher("/api/customers/**"));
+
+    private static final RequestMatcher CATALOG = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/products/**", HttpMethod.GET.name()),
+            new AntPathRequestMatcher("/api/products/lookup", HttpMethod.POST.name()));
+
+    private static final RequestMatcher UNLIMITED = new AntPathRequestMatcher("/api/customers/register");
+
+    private static final RequestMatcher ORDER_PLACEMENT = new AntPathRequestMatcher("/api/orders", HttpMethod.POST.name());
+
+    // Streams run as long as the client reads, their duration is no congestion signal
+    private static final RequestMatcher STREAMS = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/**/export"),
+            new AntPathRequestMatcher("/api/products/low-stock/stream"),
+            new AntPathRequestMatcher("/api/orders/events"));
+
+    private final ConcurrencyLimitProperties properties;
+    private final Map<Group, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Group.class);
+    private final Map<Group, Counter> rejected = new EnumMap<>(Group.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (Group group : Group.values()) {
+            String name = group.name().toLowerCase(Locale.ROOT);
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties.groupFor(name));
+            limits.put(group, limit);
+            Gauge.builder("http.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("group", name).register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("group", name).register(meterRegistry);
+            rejected.put(group, Counter.builder("http.server.concurrency.rejected").tag("group", name).register(meterRegistry));
+        }
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(Group group) {
+        return limits.get(group);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = classify(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire(ORDER_PLACEMENT.matches(request))) {
+            rejected.get(group).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Error: server busy, retry later\"}");
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (STREAMS.matches(request)) {
+                // An established stream mostly sits idle; holding a slot for its lifetime would shut out the group
+                limit.release();
+            } else if (request.isAsyncStarted()) {
+                // Other async responses keep their slot until the response completes, times out or fails
+                request.getAsyncContext().addListener(new AsyncRelease(limit));
+            } else {
+                limit.release(System.nanoTime() - started, failed);
+            }
+        }
+    }
+
+    // The group a request is limited in, or null for requests that are never shed (login, registration)
+    private static Group classify(HttpServletRequest request) {
+        if (UNLIMITED.matches(request)) {
+            return null;
+        }
+        if (ADMIN.matches(request)) {
+            return Group.ADMIN;
+        }
+        if (ORDERS.matches(request)) {
+            return Group.ORDERS;
+        }
+        if (CATALOG.matches(request)) {
+            return Group.CATALOG;
+        }
+        return null;
+    }
+
+    // Releases the slot once for an async request; errors and timeouts are followed by completion
+    private static class AsyncRelease implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        AsyncRelease(AdaptiveConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // A new async cycle on the same request drops its listeners
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.AccountOverviewDto;
+import com.ecommerce.dto.CustomerDto;
+import com.ecommerce.dto.CustomerOrderSummaryDto;
+import com.ecommerce.dto.OrderDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the account dashboard in one call. The sections are independent reads, so each runs on its
+ * own virtual thread (and its own read-only transaction); whatever has not finished by the request
+ * deadline is reported as unavailable instead of holding up the rest, and is interrupted. Connection use
+ * is bounded by the lane's connection permits like any other request, and section transactions time out
+ * with the deadline.
+ */
+@Service
+public class AccountOverviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountOverviewService.class);
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    @Value("${app.overview.deadline-ms:800}")
+    private long deadlineMs;
+
+    @Value("${app.overview.recent-orders:5}")
+    private int recentOrderLimit;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private TransactionTemplate sectionTransaction;
+
+    @PostConstruct
+    public void init() {
+        sectionTransaction = new TransactionTemplate(transactionManager);
+        sectionTransaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; queries of a section are cancelled once it has passed
+        sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(deadlineMs + 999)));
+    }
+
+    public Optional<AccountOverviewDto> getOverview(Long customerId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        Future<Optional<CustomerDto>> profile = submit(() ->
+                customerService.getCustomerById(customerId).map(customerService::convertToDto));
+        Future<List<OrderDto>> recentOrders = submit(() ->
+                orderService.getRecentOrders(customerId, recentOrderLimit));
+        Future<Long> openOrders = submit(() -> orderService.countOpenOrders(customerId));
+        Future<CustomerOrderSummaryDto> summary = submit(() -> customerOrderSummaryService.getSummary(customerId));
+
+        AccountOverviewDto overview = new AccountOverviewDto();
+        Optional<CustomerDto> customer = await(profile, deadline, "profile", overview);
+        if (customer != null && customer.isEmpty()) {
+            recentOrders.cancel(true);
+            openOrders.cancel(true);
+            summary.cancel(true);
+            return Optional.empty();
+        }
+        if (customer != null) {
+            overview.setProfile(customer.get());
+        }
+        overview.setRecentOrders(await(recentOrders, deadline, "recentOrders", overview));
+        overview.setOpenOrderCount(await(openOrders, deadline, "openOrderCount", overview));
+        apply(await(summary, deadline, "summary", overview), value -> {
+            overview.setOrderCount(value.getOrderCount());
+            overview.setLifetimeSpend(value.getLifetimeSpend());
+        });
+        return Optional.of(overview);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Submitted as a Callable, so cancelling the Future interrupts a section that is still waiting or running
+    private <T> Future<T> submit(Supplier<T> task) {
+        Callable<T> section = () -> sectionTransaction.execute(status -> task.get());
+        return executor.submit(section);
+    }
+
+    // Result of a section, or null (recorded as unavailable) when it failed or missed the deadline
+    private <T> T await(Future<T> future, long deadline, String section, AccountOverviewDto overview) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Account overview section {} missed the {} ms deadline", section, deadlineMs);
+        } catch (ExecutionException e) {
+            logger.warn("Account overview section {} failed: {}", section, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        overview.getUnavailable().add(section);
+        return null;
+    }
+
+    private static <T> void apply(T value, Consumer<T> consumer) {
+        if (value != null) {
+            consumer.accept(value);
+        }
+    }
+}
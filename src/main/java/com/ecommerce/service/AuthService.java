@@ -29,6 +29,9 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    PageCountService pageCountService;
+
     public AuthDto.LoginResponse authenticateUser(AuthDto.LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
@@ -62,6 +65,8 @@ public class AuthService {
         customer.setAddress(signUpRequest.getAddress());
         customer.setRole(Customer.Role.USER);
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        pageCountService.invalidate("customers");
+        return saved;
     }
 }
@@ -0,0 +1,384 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.FacetResultDto;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar index of the catalog used for faceted filtering.
+ * Every product occupies a slot; categories, price bands and stock are kept as one bitmap per value
+ * so a filter is a handful of bitmap ANDs and the facet counts come out of a single pass.
+ */
+@Service
+public class CatalogIndexService {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotsByProductId = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] productIds = new long[0];
+    private long[] priceCents = new long[0];
+    private int[] stockQuantities = new int[0];
+    private int[] categoryCodes = new int[0];
+    private int[] bandCodes = new int[0];
+    private long[] updatedMillis = new long[0];
+    private int slotCount;
+
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+
+    // Dictionary-encoded categories, matched case-insensitively like the database collation
+    private final Map<String, Integer> categoryCodesByKey = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<BitSet> categoryBitmaps = new ArrayList<>();
+
+    // Lower bound of each price band in cents; the last band is open-ended
+    private final long[] bandLowerCents;
+    private final BitSet[] bandBitmaps;
+
+    public CatalogIndexService(@Value("${app.catalog.price-bands:25,50,100,250,500,1000}") String[] priceBands) {
+        bandLowerCents = new long[priceBands.length + 1];
+        for (int i = 0; i < priceBands.length; i++) {
+            bandLowerCents[i + 1] = Money.of(new BigDecimal(priceBands[i].trim())).getCents();
+            if (bandLowerCents[i + 1] <= bandLowerCents[i]) {
+                throw new IllegalArgumentException("Price bands must be positive and ascending: " + Arrays.toString(priceBands));
+            }
+        }
+        bandBitmaps = new BitSet[bandLowerCents.length];
+        for (int i = 0; i < bandBitmaps.length; i++) {
+            bandBitmaps[i] = new BitSet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProduct().getId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            slotsByProductId.clear();
+            freeSlots.clear();
+            slotCount = 0;
+            live.clear();
+            inStock.clear();
+            categoryCodesByKey.clear();
+            categoryNames.clear();
+            categoryBitmaps.clear();
+            for (BitSet band : bandBitmaps) {
+                band.clear();
+            }
+            for (Product product : products) {
+                put(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByProductId.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            live.clear(slot);
+            inStock.clear(slot);
+            categoryBitmaps.get(categoryCodes[slot]).clear(slot);
+            bandBitmaps[bandCodes[slot]].clear(slot);
+            freeSlots.push(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Last modification time of a product in epoch millis, or -1 when the product is not indexed
+    public long lastModified(Long productId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotsByProductId.get(productId);
+            return slot == null ? -1 : updatedMillis[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether the product is indexed under the given category, compared the way facets group categories
+    public boolean hasCategory(Long productId, String category) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotsByProductId.get(productId);
+            return slot != null && categoryCodes[slot] == categoryCodesByKey.getOrDefault(categoryKey(category), -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Products in a category, read from its bitmap
+    public int countCategory(String category) {
+        lock.readLock().lock();
+        try {
+            Integer code = categoryCodesByKey.get(categoryKey(category));
+            return code == null ? 0 : categoryBitmaps.get(code).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetResultDto facets(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStockOnly) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryMask = categoryMask(categories);
+            BitSet priceMask = priceMask(minPrice, maxPrice);
+            BitSet stockMask = stockMask(inStockOnly);
+
+            // Each facet is counted against the other two filters, so only slots matching at least two need a visit
+            BitSet candidates = and(categoryMask, priceMask);
+            candidates.or(and(categoryMask, stockMask));
+            candidates.or(and(priceMask, stockMask));
+
+            long[] categoryCounts = new long[categoryNames.size()];
+            long[] bandCounts = new long[bandBitmaps.length];
+            long total = 0;
+            long inStockCount = 0;
+            long outOfStockCount = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                boolean category = categoryMask.get(slot);
+                boolean price = priceMask.get(slot);
+                boolean stock = stockMask.get(slot);
+                if (price && stock) {
+                    categoryCounts[categoryCodes[slot]]++;
+                }
+                if (category && stock) {
+                    bandCounts[bandCodes[slot]]++;
+                }
+                if (category && price) {
+                    if (inStock.get(slot)) {
+                        inStockCount++;
+                    } else {
+                        outOfStockCount++;
+                    }
+                    if (stock) {
+                        total++;
+                    }
+                }
+            }
+
+            FacetResultDto result = new FacetResultDto();
+            result.setTotalMatches(total);
+            result.setInStock(inStockCount);
+            result.setOutOfStock(outOfStockCount);
+            for (int code = 0; code < categoryCounts.length; code++) {
+                if (categoryCounts[code] > 0) {
+                    result.getCategories().add(new FacetResultDto.CategoryFacet(categoryNames.get(code), categoryCounts[code]));
+                }
+            }
+            for (int band = 0; band < bandCounts.length; band++) {
+                BigDecimal upper = band + 1 < bandLowerCents.length ? BigDecimal.valueOf(bandLowerCents[band + 1], 2) : null;
+                result.getPriceBands().add(new FacetResultDto.PriceBandFacet(
+                        BigDecimal.valueOf(bandLowerCents[band], 2), upper, bandCounts[band]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of all products matching every filter, in ascending id order
+    public long[] matchingIds(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStockOnly) {
+        lock.readLock().lock();
+        try {
+            BitSet result = and(categoryMask(categories), priceMask(minPrice, maxPrice));
+            result.and(stockMask(inStockOnly));
+            long[] ids = new long[result.cardinality()];
+            int i = 0;
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                ids[i++] = productIds[slot];
+            }
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Product product) {
+        Integer slot = slotsByProductId.get(product.getId());
+        // Events of concurrent commits arrive in any order; an older copy of the product must not win
+        if (slot != null && toEpochMillis(product) < updatedMillis[slot]) {
+            return;
+        }
+        if (slot == null) {
+            slot = allocateSlot();
+            slotsByProductId.put(product.getId(), slot);
+            productIds[slot] = product.getId();
+            live.set(slot);
+        } else {
+            categoryBitmaps.get(categoryCodes[slot]).clear(slot);
+            bandBitmaps[bandCodes[slot]].clear(slot);
+        }
+
+        int category = categoryCode(product.getCategory());
+        long cents = product.getPrice().getCents();
+        int band = bandOf(cents);
+        int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+
+        categoryCodes[slot] = category;
+        priceCents[slot] = cents;
+        bandCodes[slot] = band;
+        stockQuantities[slot] = stock;
+        updatedMillis[slot] = toEpochMillis(product);
+        categoryBitmaps.get(category).set(slot);
+        bandBitmaps[band].set(slot);
+        inStock.set(slot, stock > 0);
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == productIds.length) {
+            int capacity = Math.max(64, productIds.length * 2);
+            productIds = Arrays.copyOf(productIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            stockQuantities = Arrays.copyOf(stockQuantities, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            bandCodes = Arrays.copyOf(bandCodes, capacity);
+            updatedMillis = Arrays.copyOf(updatedMillis, capacity);
+        }
+        return slotCount++;
+    }
+
+    private int categoryCode(String category) {
+        String key = categoryKey(category);
+        Integer code = categoryCodesByKey.get(key);
+        if (code == null) {
+            code = categoryNames.size();
+            categoryCodesByKey.put(key, code);
+            categoryNames.add(category);
+            categoryBitmaps.add(new BitSet());
+        }
+        return code;
+    }
+
+    private BitSet categoryMask(List<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return live;
+        }
+        BitSet mask = new BitSet();
+        for (String category : categories) {
+            Integer code = categoryCodesByKey.get(categoryKey(category));
+            if (code != null) {
+                mask.or(categoryBitmaps.get(code));
+            }
+        }
+        return mask;
+    }
+
+    private BitSet priceMask(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return live;
+        }
+        Long minCents = minPrice == null ? null : Money.of(minPrice).getCents();
+        Long maxCents = maxPrice == null ? null : Money.of(maxPrice).getCents();
+        int from = minCents == null ? 0 : bandOf(minCents);
+        int to = maxCents == null ? bandBitmaps.length - 1 : bandOf(maxCents);
+
+        BitSet mask = new BitSet();
+        for (int band = from; band <= to; band++) {
+            mask.or(bandBitmaps[band]);
+        }
+        // Only the two edge bands can hold prices outside the requested range
+        if (from <= to) {
+            clearOutsideRange(mask, bandBitmaps[from], minCents, maxCents);
+            if (to != from) {
+                clearOutsideRange(mask, bandBitmaps[to], minCents, maxCents);
+            }
+        }
+        return mask;
+    }
+
+    private void clearOutsideRange(BitSet mask, BitSet band, Long minCents, Long maxCents) {
+        for (int slot = band.nextSetBit(0); slot >= 0; slot = band.nextSetBit(slot + 1)) {
+            long cents = priceCents[slot];
+            if ((minCents != null && cents < minCents) || (maxCents != null && cents > maxCents)) {
+                mask.clear(slot);
+            }
+        }
+    }
+
+    private BitSet stockMask(Boolean inStockOnly) {
+        if (inStockOnly == null) {
+            return live;
+        }
+        if (inStockOnly) {
+            return inStock;
+        }
+        BitSet mask = (BitSet) live.clone();
+        mask.andNot(inStock);
+        return mask;
+    }
+
+    private int bandOf(long cents) {
+        int index = Arrays.binarySearch(bandLowerCents, cents);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    private static BitSet and(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        result.and(right);
+        return result;
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static long toEpochMillis(Product product) {
+        if (product.getUpdatedDate() == null) {
+            return -1;
+        }
+        return product.getUpdatedDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
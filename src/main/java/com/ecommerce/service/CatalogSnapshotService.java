@@ -0,0 +1,276 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Periodically writes the fields the in-memory catalog structures are built from (id, name, price in cents,
+ * category, stock and last modification) to a compact memory-mapped file (app.catalog-snapshot.enabled).
+ * At startup the catalog is restored from that file and brought up to date with the products modified since
+ * the snapshot, plus an id scan that finds deleted products, instead of loading every product entity.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int MAGIC = 0x43534E50;
+    private static final int VERSION = 1;
+    // magic, version, watermark, written at, category count, product count, CRC32C of the body
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+    // id, price cents, stock, updated millis, category code, name length; names and categories are VARCHAR(255),
+    // so their UTF-8 length always fits the two-byte length prefix
+    private static final int FIXED_PRODUCT_SIZE = 8 + 8 + 4 + 8 + 4 + 2;
+    private static final int ID_CHUNK = 500;
+
+    private static final String PRODUCTS_SQL =
+            "SELECT id, name, price, category, stock_quantity, updated_date FROM products";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog-snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.catalog-snapshot.path:data/catalog-snapshot.bin}")
+    private String path;
+
+    // Products modified this long before the snapshot's newest change are read again, their transactions may
+    // have committed after the snapshot was taken
+    @Value("${app.catalog-snapshot.catch-up-margin-ms:60000}")
+    private long catchUpMarginMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog-snapshot.interval-ms:300000}",
+               fixedDelayString = "${app.catalog-snapshot.interval-ms:300000}")
+    public void write() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<Product> products = new ArrayList<>();
+        // A full catalog scan is background work, it runs on the admin connection pool
+        Lane.ADMIN.call(() -> {
+            jdbcTemplate.query(PRODUCTS_SQL, (RowCallbackHandler) rs -> products.add(toProduct(rs)));
+            return null;
+        });
+        try {
+            write(products);
+            logger.info("Catalog snapshot of {} products written in {} ms", products.size(),
+                    System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            logger.warn("Could not write catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The catalog from the snapshot, caught up with the database; null when snapshots are disabled or
+     * there is no readable snapshot, in which case the catalog has to be loaded from the database.
+     */
+    public List<Product> restore() {
+        Path file = Paths.get(path);
+        if (!enabled || !Files.exists(file)) {
+            return null;
+        }
+        long started = System.currentTimeMillis();
+        Map<Long, Product> products = new LinkedHashMap<>();
+        long watermark;
+        try {
+            watermark = read(file, products);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+        long loaded = System.currentTimeMillis() - started;
+
+        List<Product> changed = findModifiedSince(watermark - catchUpMarginMs);
+        for (Product product : changed) {
+            products.put(product.getId(), product);
+        }
+
+        Set<Long> ids = findIds();
+        int before = products.size();
+        products.keySet().retainAll(ids);
+        int deleted = before - products.size();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += ID_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(missing.size(), from + ID_CHUNK));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(PRODUCTS_SQL + " WHERE id IN (" + placeholders + ")", (RowCallbackHandler) rs -> {
+                Product product = toProduct(rs);
+                products.put(product.getId(), product);
+            }, chunk.toArray());
+        }
+        logger.info("Catalog restored from snapshot in {} ms ({} ms reading the file): {} changed, {} deleted, {} missing",
+                System.currentTimeMillis() - started, loaded, changed.size(), deleted, missing.size());
+        return new ArrayList<>(products.values());
+    }
+
+    // Products whose last modification is at or after the given epoch millis, with the fields the snapshot holds
+    public List<Product> findModifiedSince(long epochMillis) {
+        List<Product> products = new ArrayList<>();
+        jdbcTemplate.query(PRODUCTS_SQL + " WHERE updated_date >= ?", (RowCallbackHandler) rs -> products.add(toProduct(rs)),
+                Timestamp.valueOf(toLocalDateTime(epochMillis)));
+        return products;
+    }
+
+    public Set<Long> findIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM products", Long.class));
+    }
+
+    private void write(List<Product> products) throws IOException {
+        Map<String, Integer> categoryCodes = new LinkedHashMap<>();
+        List<byte[]> categories = new ArrayList<>();
+        List<byte[]> names = new ArrayList<>(products.size());
+        long size = HEADER_SIZE;
+        long watermark = 0;
+        for (Product product : products) {
+            String category = product.getCategory() == null ? "" : product.getCategory();
+            if (!categoryCodes.containsKey(category)) {
+                categoryCodes.put(category, categories.size());
+                byte[] encoded = category.getBytes(StandardCharsets.UTF_8);
+                categories.add(encoded);
+                size += 2 + encoded.length;
+            }
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += FIXED_PRODUCT_SIZE + name.length;
+            watermark = Math.max(watermark, CatalogIndexService.toEpochMillis(product));
+        }
+
+        Path file = Paths.get(path).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_SIZE);
+            for (byte[] category : categories) {
+                buffer.putShort((short) category.length).put(category);
+            }
+            for (int i = 0; i < products.size(); i++) {
+                Product product = products.get(i);
+                String category = product.getCategory() == null ? "" : product.getCategory();
+                buffer.putLong(product.getId())
+                        .putLong(product.getPrice().getCents())
+                        .putInt(product.getStockQuantity() == null ? 0 : product.getStockQuantity())
+                        .putLong(CatalogIndexService.toEpochMillis(product))
+                        .putInt(categoryCodes.get(category))
+                        .putShort((short) names.get(i).length)
+                        .put(names.get(i));
+            }
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putLong(8, watermark)
+                    .putLong(16, System.currentTimeMillis())
+                    .putInt(24, categories.size())
+                    .putInt(28, products.size())
+                    .putInt(32, checksum(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE)));
+            buffer.force();
+        }
+        // Readers only ever see a complete snapshot
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Reads the snapshot into products and returns the newest modification time it contains
+    private long read(Path file, Map<Long, Product> products) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("not a catalog snapshot");
+            }
+            if (checksum(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE)) != buffer.getInt(32)) {
+                throw new IOException("checksum mismatch");
+            }
+            long watermark = buffer.getLong(8);
+            String[] categories = new String[buffer.getInt(24)];
+            int count = buffer.getInt(28);
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = string(buffer);
+            }
+            for (int i = 0; i < count; i++) {
+                Product product = new Product();
+                product.setId(buffer.getLong());
+                product.setPrice(Money.ofCents(buffer.getLong()));
+                product.setStockQuantity(buffer.getInt());
+                long updated = buffer.getLong();
+                product.setUpdatedDate(updated < 0 ? null : toLocalDateTime(updated));
+                product.setCategory(categories[buffer.getInt()]);
+                product.setName(string(buffer));
+                products.put(product.getId(), product);
+            }
+            return watermark;
+        }
+    }
+
+    private static Product toProduct(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setName(rs.getString("name"));
+        product.setPrice(Money.of(rs.getBigDecimal("price")));
+        product.setCategory(rs.getString("category"));
+        product.setStockQuantity(rs.getInt("stock_quantity"));
+        Timestamp updated = rs.getTimestamp("updated_date");
+        product.setUpdatedDate(updated == null ? null : updated.toLocalDateTime());
+        return product;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static int checksum(ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
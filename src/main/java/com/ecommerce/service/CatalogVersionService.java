@@ -0,0 +1,91 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Version of the catalog derived from the products table (row count and newest modification time), so every
+ * node hands out the same validator for the same content and notices changes made through other nodes.
+ * The table is only read every refresh-interval-ms, never on a request; product changes committed here move
+ * the version on in memory right away, until the next refresh has read them back from the table.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final String VERSION_SQL = "SELECT COUNT(*) AS products, MAX(updated_date) AS updated FROM products";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    // Local product changes committed so far
+    private final AtomicLong localChanges = new AtomicLong();
+    private volatile Refreshed refreshed = new Refreshed(0, 0);
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        localChanges.incrementAndGet();
+    }
+
+    // Picks up changes committed through other nodes
+    @Scheduled(fixedDelayString = "${app.catalog-version.refresh-interval-ms:1000}")
+    public void refreshPeriodically() {
+        Lane.ADMIN.call(() -> {
+            refresh();
+            return null;
+        });
+    }
+
+    public void refresh() {
+        // A lock rather than synchronized: the query would pin a virtual thread's carrier
+        refreshLock.lock();
+        try {
+            // Changes counted before the query committed before it, so the table already reflects them
+            long changesBefore = localChanges.get();
+            long tableVersion = jdbcTemplate.query(VERSION_SQL, rs -> {
+                rs.next();
+                Timestamp updated = rs.getTimestamp("updated");
+                long updatedMicros = updated == null ? 0 : updated.getTime() * 1000 + updated.getNanos() / 1000 % 1000;
+                return 31 * updatedMicros + rs.getLong("products");
+            });
+            refreshed = new Refreshed(tableVersion, changesBefore);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        Refreshed current = refreshed;
+        long pending = localChanges.get() - current.localChanges;
+        // The table version alone once a refresh has caught up, so all nodes agree on it
+        return pending == 0 ? current.tableVersion : current.tableVersion ^ (pending * 0x9E3779B97F4A7C15L);
+    }
+
+    public String getEtag() {
+        return getEtag(getVersion());
+    }
+
+    // Weak because the same version may be served with different encodings
+    public String getEtag(long version) {
+        return "W/\"catalog-" + Long.toHexString(version) + "\"";
+    }
+
+    private static class Refreshed {
+        private final long tableVersion;
+        private final long localChanges;
+
+        Refreshed(long tableVersion, long localChanges) {
+            this.tableVersion = tableVersion;
+            this.localChanges = localChanges;
+        }
+    }
+}
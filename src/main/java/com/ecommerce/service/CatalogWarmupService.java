@@ -0,0 +1,151 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the in-memory catalog structures once the application has started, from the catalog snapshot when
+ * one is available, and reloads them from the database after bulk changes that bypass ProductService.
+ * Changes committed through other nodes are picked up every sync-interval-ms from updated_date, and
+ * products deleted elsewhere by an id scan every deletion-check-interval-ms.
+ */
+@Service
+public class CatalogWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogWarmupService.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Products modified this long before the newest change already seen are read again, their transactions
+    // may have committed after that change was read
+    @Value("${app.catalog.sync-margin-ms:10000}")
+    private long syncMarginMs;
+
+    @Value("${app.catalog.deletion-check-interval-ms:60000}")
+    private long deletionCheckIntervalMs;
+
+    private volatile boolean loaded;
+    private volatile long lastSeen;
+    private long lastDeletionCheck;
+
+    // Transactional here too, reload() below is a self-invocation that bypasses its own annotation; the snapshot
+    // catch-up queries then also read one consistent view
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        List<Product> products = catalogSnapshotService.restore();
+        if (products == null) {
+            reload();
+            return;
+        }
+        rebuild(products);
+        logger.info("Catalog index warmed up with {} products from the snapshot in {} ms", products.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Transactional(readOnly = true)
+    public void reload() {
+        long start = System.currentTimeMillis();
+        List<Product> products = productRepository.findAll();
+        rebuild(products);
+        logger.info("Catalog index loaded {} products in {} ms", products.size(), System.currentTimeMillis() - start);
+    }
+
+    // Changes are replayed as product events, so every in-memory structure and cache handles them as local ones
+    @Scheduled(fixedDelayString = "${app.catalog.sync-interval-ms:5000}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        List<Product> changed = Lane.ADMIN.call(() -> catalogSnapshotService.findModifiedSince(lastSeen - syncMarginMs));
+        int applied = 0;
+        for (Product product : changed) {
+            long updated = CatalogIndexService.toEpochMillis(product);
+            lastSeen = Math.max(lastSeen, updated);
+            // Local changes are already indexed, and one committed here after the query is newer than the row read
+            long indexed = catalogIndexService.lastModified(product.getId());
+            if (indexed >= 0 && updated <= indexed) {
+                continue;
+            }
+            boolean listingChanged = indexed < 0 || !catalogIndexService.hasCategory(product.getId(), product.getCategory());
+            eventPublisher.publishEvent(ProductChangedEvent.updated(product, listingChanged));
+            applied++;
+        }
+
+        int deleted = 0;
+        if (System.currentTimeMillis() - lastDeletionCheck >= deletionCheckIntervalMs) {
+            lastDeletionCheck = System.currentTimeMillis();
+            // Taken before the scan, so a product indexed meanwhile cannot be mistaken for a deleted one
+            long[] indexedIds = catalogIndexService.matchingIds(null, null, null, null);
+            Set<Long> ids = Lane.ADMIN.call(catalogSnapshotService::findIds);
+            for (long id : indexedIds) {
+                if (!ids.contains(id)) {
+                    Product product = new Product();
+                    product.setId(id);
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
+                    deleted++;
+                }
+            }
+        }
+        if (applied > 0 || deleted > 0) {
+            logger.debug("Catalog synced with the database: {} changed, {} deleted", applied, deleted);
+        }
+    }
+
+    private void rebuild(List<Product> products) {
+        long newest = 0;
+        for (Product product : products) {
+            newest = Math.max(newest, CatalogIndexService.toEpochMillis(product));
+        }
+        lastSeen = newest;
+        lastDeletionCheck = System.currentTimeMillis();
+        catalogIndexService.rebuild(products);
+        priceIndex.rebuild(products);
+        lowStockMonitor.rebuild(products);
+        catalogVersionService.refresh();
+        responseCache.clear();
+        pageCountService.invalidate("products");
+        loaded = true;
+    }
+}
@@ -0,0 +1,333 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.util.LongIntHashMap;
+import com.ecommerce.util.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse product co-occurrence counts ("bought together") built from order items.
+ * Every product keeps a bounded list of its most frequent partners that is maintained incrementally:
+ * counts only grow, so a partner only has to beat the current last entry to get in.
+ * Cancellations do not remove co-purchases; the signal is that the products were bought together.
+ */
+@Service
+public class CoPurchaseIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoPurchaseIndex.class);
+
+    // Larger orders only contribute their first products, pairs grow quadratically with order size
+    private static final int MAX_PRODUCTS_PER_ORDER = 50;
+
+    private static final String ITEMS_SQL =
+            "SELECT order_id, product_id FROM order_items WHERE order_id BETWEEN ? AND ? ORDER BY order_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.related.size:20}")
+    private int topN;
+
+    @Value("${app.related.rebuild-parallelism:3}")
+    private int rebuildParallelism;
+
+    // Every rebuild worker holds an admin connection for its whole range
+    @Value("${app.bulkhead.admin-pool.maximum-pool-size:3}")
+    private int adminPoolSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongObjectHashMap<LongIntHashMap> pairCounts = new LongObjectHashMap<>();
+    private LongObjectHashMap<TopPartners> topPartners = new LongObjectHashMap<>();
+
+    // Orders committed while a rebuild is scanning history, replayed once it is swapped in
+    private List<OrderChangedEvent> queuedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            queuedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Scan scan;
+        try {
+            long[] span = jdbcTemplate.queryForObject("SELECT COALESCE(MIN(order_id), 0), COALESCE(MAX(order_id), 0) FROM order_items",
+                    (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)});
+            scan = span[1] == 0 ? new Scan(0, 1, 0) : countInParallel(span[0], span[1]);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                queuedDuringRebuild.forEach(this::apply);
+                queuedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        LongObjectHashMap<LongIntHashMap> counts = scan.counts;
+        LongObjectHashMap<TopPartners> top = new LongObjectHashMap<>(counts.size());
+        counts.forEach((productId, partners) -> {
+            TopPartners list = new TopPartners(topN);
+            partners.forEach(list::offer);
+            top.put(productId, list);
+        });
+
+        int replayed = 0;
+        lock.writeLock().lock();
+        try {
+            pairCounts = counts;
+            topPartners = top;
+            // Orders can commit behind the scan with lower ids than it had reached; only those it saw are skipped
+            for (OrderChangedEvent event : queuedDuringRebuild) {
+                if (!scan.saw(event.getOrderId())) {
+                    apply(event);
+                    replayed++;
+                }
+            }
+            queuedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Co-purchase index rebuilt for {} products in {} ms ({} orders replayed)",
+                counts.size(), System.currentTimeMillis() - started, replayed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!event.isCreated()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (queuedDuringRebuild != null) {
+                queuedDuringRebuild.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Partners of a product, most frequently bought together first
+    public Partners related(long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            TopPartners list = topPartners.get(productId);
+            if (list == null) {
+                return new Partners(new long[0], new int[0]);
+            }
+            int size = Math.min(limit, list.size);
+            return new Partners(Arrays.copyOf(list.ids, size), Arrays.copyOf(list.counts, size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(OrderChangedEvent event) {
+        long[] products = event.getLines().stream()
+                .mapToLong(OrderChangedEvent.Line::getProductId)
+                .distinct()
+                .limit(MAX_PRODUCTS_PER_ORDER)
+                .toArray();
+        for (long a : products) {
+            LongIntHashMap partners = pairCounts.computeIfAbsent(a, id -> new LongIntHashMap());
+            TopPartners top = topPartners.computeIfAbsent(a, id -> new TopPartners(topN));
+            for (long b : products) {
+                if (a != b) {
+                    top.offer(b, partners.addTo(b, 1));
+                }
+            }
+        }
+    }
+
+    // Splits the order id range across workers that count into private maps, then merges them
+    private Scan countInParallel(long firstOrderId, long lastOrderId) {
+        int parallelism = Math.max(1, Math.min(rebuildParallelism, adminPoolSize));
+        int workers = (int) Math.max(1, Math.min(parallelism, lastOrderId - firstOrderId + 1));
+        long step = (lastOrderId - firstOrderId) / workers + 1;
+        Scan scan = new Scan(firstOrderId, step, workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<LongObjectHashMap<LongIntHashMap>>> parts = new ArrayList<>();
+            for (long from = firstOrderId; from <= lastOrderId; from += step) {
+                long to = Math.min(lastOrderId, from + step - 1);
+                long rangeStart = from;
+                BitSet seen = scan.seen[parts.size()];
+                // Rebuild scans run on the admin connection pool, away from checkout
+                parts.add(executor.submit(() -> Lane.ADMIN.call(() -> countRange(rangeStart, to, seen))));
+            }
+            for (Future<LongObjectHashMap<LongIntHashMap>> part : parts) {
+                LongObjectHashMap<LongIntHashMap> counts = part.get();
+                if (scan.counts == null) {
+                    scan.counts = counts;
+                    continue;
+                }
+                LongObjectHashMap<LongIntHashMap> target = scan.counts;
+                counts.forEach((productId, partners) -> {
+                    LongIntHashMap merging = target.computeIfAbsent(productId, id -> new LongIntHashMap(partners.size()));
+                    partners.forEach(merging::addTo);
+                });
+            }
+            return scan;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Co-purchase rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Co-purchase rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Counts the orders of one range and marks each one in seen, by its offset from the range start
+    private LongObjectHashMap<LongIntHashMap> countRange(long firstOrderId, long lastOrderId, BitSet seen) {
+        LongObjectHashMap<LongIntHashMap> counts = new LongObjectHashMap<>();
+        long[] order = new long[MAX_PRODUCTS_PER_ORDER];
+        int[] orderSize = {0};
+        long[] currentOrder = {-1};
+        jdbcTemplate.query(ITEMS_SQL, (RowCallbackHandler) rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != currentOrder[0]) {
+                countPairs(counts, order, orderSize[0]);
+                currentOrder[0] = orderId;
+                orderSize[0] = 0;
+                seen.set((int) (orderId - firstOrderId));
+            }
+            long productId = rs.getLong(2);
+            for (int i = 0; i < orderSize[0]; i++) {
+                if (order[i] == productId) {
+                    return;
+                }
+            }
+            if (orderSize[0] < order.length) {
+                order[orderSize[0]++] = productId;
+            }
+        }, firstOrderId, lastOrderId);
+        countPairs(counts, order, orderSize[0]);
+        return counts;
+    }
+
+    private static void countPairs(LongObjectHashMap<LongIntHashMap> counts, long[] products, int size) {
+        for (int i = 0; i < size; i++) {
+            LongIntHashMap partners = counts.computeIfAbsent(products[i], id -> new LongIntHashMap());
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    partners.addTo(products[j], 1);
+                }
+            }
+        }
+    }
+
+    // Result of a rebuild scan: the merged counts and, per worker range, the orders it read
+    private static class Scan {
+        private final long firstOrderId;
+        private final long step;
+        private final BitSet[] seen;
+        private LongObjectHashMap<LongIntHashMap> counts;
+
+        Scan(long firstOrderId, long step, int ranges) {
+            this.firstOrderId = firstOrderId;
+            this.step = step;
+            this.seen = new BitSet[ranges];
+            for (int i = 0; i < ranges; i++) {
+                seen[i] = new BitSet();
+            }
+            if (ranges == 0) {
+                counts = new LongObjectHashMap<>();
+            }
+        }
+
+        boolean saw(long orderId) {
+            if (orderId < firstOrderId) {
+                return false;
+            }
+            long range = (orderId - firstOrderId) / step;
+            return range < seen.length && seen[(int) range].get((int) ((orderId - firstOrderId) % step));
+        }
+    }
+
+    public static class Partners {
+        private final long[] productIds;
+        private final int[] counts;
+
+        Partners(long[] productIds, int[] counts) {
+            this.productIds = productIds;
+            this.counts = counts;
+        }
+
+        public long[] getProductIds() { return productIds; }
+
+        public int[] getCounts() { return counts; }
+    }
+
+    // Partners sorted by count descending, then id ascending, holding at most capacity entries
+    private static class TopPartners {
+        private final long[] ids;
+        private final int[] counts;
+        private int size;
+
+        TopPartners(int capacity) {
+            ids = new long[capacity];
+            counts = new int[capacity];
+        }
+
+        void offer(long partnerId, int count) {
+            int position = -1;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == partnerId) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (size < ids.length) {
+                    position = size++;
+                } else if (size > 0 && ranksBefore(count, partnerId, counts[size - 1], ids[size - 1])) {
+                    position = size - 1;
+                } else {
+                    return;
+                }
+                ids[position] = partnerId;
+            }
+            counts[position] = count;
+            while (position > 0 && ranksBefore(counts[position], ids[position], counts[position - 1], ids[position - 1])) {
+                long id = ids[position];
+                ids[position] = ids[position - 1];
+                ids[position - 1] = id;
+                int swapped = counts[position];
+                counts[position] = counts[position - 1];
+                counts[position - 1] = swapped;
+                position--;
+            }
+        }
+
+        private static boolean ranksBefore(int count, long id, int otherCount, long otherId) {
+            return count > otherCount || (count == otherCount && id < otherId);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CustomerOrderSummaryDto;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.model.CustomerOrderSummary;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Order;
+import com.ecommerce.repository.CustomerOrderSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps order count, lifetime spend and last order date per customer. Updates run before the order
+ * transaction commits, so the summary can never disagree with the orders table.
+ */
+@Service
+@Transactional
+public class CustomerOrderSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerOrderSummaryService.class);
+
+    @Autowired
+    private CustomerOrderSummaryRepository summaryRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        int sign = counted(event.getStatus()) - counted(event.getPreviousStatus());
+        if (sign == 0 && !event.isCreated()) {
+            return;
+        }
+        summaryRepository.applyDelta(event.getCustomerId(), sign, event.getTotalAmount().times(sign).toBigDecimal(),
+                event.isCreated() ? event.getOrderDate() : null);
+    }
+
+    // Fills the table from existing orders the first time the application runs against a database
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (summaryRepository.count() == 0) {
+            int rows = summaryRepository.rebuildFromOrders();
+            logger.info("Built order summaries for {} customers", rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerOrderSummaryDto getSummary(Long customerId) {
+        return summaryRepository.findById(customerId)
+                .map(summary -> new CustomerOrderSummaryDto(customerId, summary.getOrderCount(),
+                        summary.getLifetimeSpend().toBigDecimal(), summary.getLastOrderDate()))
+                .orElseGet(() -> new CustomerOrderSummaryDto(customerId, 0L, Money.ZERO.toBigDecimal(), null));
+    }
+
+    public void deleteSummary(Long customerId) {
+        summaryRepository.findById(customerId).ifPresent(summaryRepository::delete);
+    }
+
+    private static int counted(Order.OrderStatus status) {
+        return status == null || status == Order.OrderStatus.CANCELLED ? 0 : 1;
+    }
+}
@@ -1,9 +1,9 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.AuthDto;
+import com.ecommerce.dto.CountedPage;
 import com.ecommerce.dto.CustomerDto;
 import com.ecommerce.model.Customer;
-import com.ecommerce.model.Order;
 import com.ecommerce.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -13,7 +13,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -26,9 +25,16 @@ public class CustomerService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public Page<Customer> getAllCustomers(int page, int size) {
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    public Page<Customer> getAllCustomers(int page, int size, CountedPage.CountStrategy countStrategy) {
         Pageable pageable = PageRequest.of(page, size);
-        return customerRepository.findAll(pageable);
+        return pageCountService.toPage(customerRepository.findSliceBy(pageable), countStrategy, "customers",
+                customerRepository::count, () -> pageCountService.tableRowEstimate("customers"));
     }
 
     public Optional<Customer> getCustomerById(Long id) {
@@ -53,7 +59,9 @@ public class CustomerService {
         customer.setAddress(registerRequest.getAddress());
         customer.setRole(Customer.Role.USER);
 
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        pageCountService.invalidate("customers");
+        return saved;
     }
 
     public Customer updateCustomer(Long id, CustomerDto customerDto) {
@@ -73,12 +81,8 @@ public class CustomerService {
         Customer customer = customerRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
         customerRepository.delete(customer);
-    }
-
-    public List<Order> getCustomerOrders(Long customerId) {
-        Customer customer = customerRepository.findById(customerId)
-            .orElseThrow(() -> new RuntimeException("Customer not found with id: " + customerId));
-        return customer.getOrders();
+        customerOrderSummaryService.deleteSummary(id);
+        pageCountService.invalidate("customers");
     }
 
     public CustomerDto convertToDto(Customer customer) {
@@ -0,0 +1,135 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CustomerDto;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.CsvReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Full exports streamed from a forward-only database cursor. Rows are written as they are fetched
+ * and the persistence context is cleared periodically, so memory use does not grow with table size.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+
+        public String getExtension() { return extension; }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write("id,name,description,price,category,stockQuantity\n");
+        }
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductDto product = productService.convertToDto(iterator.next());
+                if (format == Format.CSV) {
+                    writer.write(product.getId() + "," + CsvReader.escape(product.getName()) + ","
+                            + CsvReader.escape(product.getDescription()) + "," + product.getPrice().toPlainString() + ","
+                            + CsvReader.escape(product.getCategory()) + "," + product.getStockQuantity() + "\n");
+                } else {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                }
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} products as {}", count, format);
+        return count;
+    }
+
+    // CustomerDto carries no password, so the hash never leaves the database
+    @Transactional(readOnly = true)
+    public long exportCustomers(Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write("id,firstName,lastName,email,phoneNumber,address,role\n");
+        }
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                CustomerDto customer = customerService.convertToDto(iterator.next());
+                if (format == Format.CSV) {
+                    writer.write(customer.getId() + "," + CsvReader.escape(customer.getFirstName()) + ","
+                            + CsvReader.escape(customer.getLastName()) + "," + CsvReader.escape(customer.getEmail()) + ","
+                            + CsvReader.escape(customer.getPhoneNumber()) + "," + CsvReader.escape(customer.getAddress()) + ","
+                            + customer.getRole() + "\n");
+                } else {
+                    writer.write(objectMapper.writeValueAsString(customer));
+                    writer.write('\n');
+                }
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} customers as {}", count, format);
+        return count;
+    }
+}
@@ -0,0 +1,385 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.CustomExceptions;
+import com.ecommerce.model.IdempotencyKey;
+import com.ecommerce.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for requests that must not run twice, such as order placement.
+ * Concurrent duplicates on this node share one execution, recently stored responses are answered from memory,
+ * and the idempotency_keys table makes the outcome survive restarts and visible to other nodes.
+ * Only successful responses are stored; a failed attempt releases the key so the client can retry it.
+ * A released claim is kept, marked as abandoned, so it is never removed from under a node that took it over.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    // Claim time of released keys; older than any in-progress timeout, so the next retry takes them over
+    private static final LocalDateTime RELEASED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    // A claim not completed within this time is considered abandoned and may be taken over
+    @Value("${app.idempotency.in-progress-timeout-ms:60000}")
+    private long inProgressTimeoutMs;
+
+    @Value("${app.order-batching.timeout-ms:30000}")
+    private long orderBatchingTimeoutMs;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, StoredResponse> recent;
+
+    public IdempotencyService(@Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // A batched placement may still commit until its timeout; a retry must not take its claim over before that
+    @PostConstruct
+    public void checkTimeouts() {
+        if (inProgressTimeoutMs <= orderBatchingTimeoutMs) {
+            throw new IllegalStateException("app.idempotency.in-progress-timeout-ms (" + inProgressTimeoutMs
+                    + ") must be larger than app.order-batching.timeout-ms (" + orderBatchingTimeoutMs + ")");
+        }
+    }
+
+    /**
+     * Runs action once per customer and key. With atomic set, the key is claimed and the response stored in the
+     * same transaction as the action, so the action must join it; otherwise the claim is committed first and
+     * duplicates on other nodes are refused with a ConflictException until the response is stored.
+     */
+    public ResponseEntity<?> execute(Long customerId, String key, Object request, boolean atomic,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new CustomExceptions.BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = customerId + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse cached = cached(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        InFlight mine = new InFlight(requestHash);
+        InFlight running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            if (!running.requestHash.equals(requestHash)) {
+                throw keyReused();
+            }
+            return replayed(join(running.result));
+        }
+        try {
+            ResponseEntity<?> response = atomic
+                    ? executeAtomically(cacheKey, customerId, key, requestHash, action)
+                    : executeClaimed(cacheKey, customerId, key, requestHash, action);
+            mine.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private ResponseEntity<?> executeAtomically(String cacheKey, Long customerId, String key, String requestHash,
+                                                Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> stored = findStored(cacheKey, customerId, key, requestHash);
+        if (stored != null) {
+            return stored;
+        }
+        StoredResponse[] outcome = new StoredResponse[1];
+        ResponseEntity<?> response = transactionTemplate.execute(status -> {
+            IdempotencyKey claim;
+            try {
+                // Blocks while another node holds the same uncommitted key, then fails once it commits
+                claim = idempotencyKeyRepository.saveAndFlush(newClaim(customerId, key, requestHash));
+            } catch (DataIntegrityViolationException e) {
+                status.setRollbackOnly();
+                return null;
+            }
+            ResponseEntity<?> result = action.get();
+            if (!result.getStatusCode().is2xxSuccessful()) {
+                status.setRollbackOnly();
+                return result;
+            }
+            outcome[0] = toStored(requestHash, result, claim.getExpiresAt());
+            claim.setStatusCode(outcome[0].statusCode);
+            claim.setLocation(outcome[0].location);
+            claim.setResponseBody(outcome[0].body);
+            return result;
+        });
+        if (response == null) {
+            return storedOrBusy(cacheKey, customerId, key, requestHash);
+        }
+        if (outcome[0] != null) {
+            remember(cacheKey, outcome[0]);
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> executeClaimed(String cacheKey, Long customerId, String key, String requestHash,
+                                             Supplier<ResponseEntity<?>> action) {
+        Claim claim = claim(customerId, key, requestHash);
+        if (claim == null) {
+            return storedOrBusy(cacheKey, customerId, key, requestHash);
+        }
+        ResponseEntity<?> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            release(claim);
+            throw e;
+        }
+        if (!result.getStatusCode().is2xxSuccessful()) {
+            release(claim);
+            return result;
+        }
+        StoredResponse outcome = toStored(requestHash, result, LocalDateTime.now().plusHours(ttlHours));
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyKeyRepository.complete(claim.id, outcome.statusCode, outcome.location, outcome.body));
+        remember(cacheKey, outcome);
+        return result;
+    }
+
+    // Commits a claim on the key, or returns null when the key is already taken
+    private Claim claim(Long customerId, String key, String requestHash) {
+        Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(customerId, key);
+        LocalDateTime now = claimTime();
+        if (existing.isPresent() && existing.get().getExpiresAt().isBefore(now)) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(existing.get().getId()));
+        } else if (existing.isPresent()) {
+            IdempotencyKey row = existing.get();
+            if (row.isCompleted() || !row.getRequestHash().equals(requestHash)) {
+                return null;
+            }
+            LocalDateTime staleBefore = now.minusNanos(TimeUnit.MILLISECONDS.toNanos(inProgressTimeoutMs));
+            Integer reclaimed = transactionTemplate.execute(status ->
+                    idempotencyKeyRepository.reclaimStale(row.getId(), staleBefore, now));
+            return reclaimed != null && reclaimed == 1 ? new Claim(row.getId(), now) : null;
+        }
+        try {
+            IdempotencyKey created = transactionTemplate.execute(status ->
+                    idempotencyKeyRepository.saveAndFlush(newClaim(customerId, key, requestHash)));
+            return new Claim(created.getId(), created.getCreatedDate());
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    // Only releases the claim while it is still ours; a node that took it over keeps it
+    private void release(Claim claim) {
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyKeyRepository.release(claim.id, claim.claimedAt, RELEASED));
+    }
+
+    // Claim times are compared for equality, so keep them at a precision every database stores exactly
+    private static LocalDateTime claimTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // After losing the race for a key: its stored response, or a conflict while it is still taken
+    private ResponseEntity<?> storedOrBusy(String cacheKey, Long customerId, String key, String requestHash) {
+        ResponseEntity<?> stored = findStored(cacheKey, customerId, key, requestHash);
+        if (stored == null) {
+            throw busy();
+        }
+        return stored;
+    }
+
+    // The stored response for the key, or null when it is not taken; refuses keys still being processed elsewhere
+    private ResponseEntity<?> findStored(String cacheKey, Long customerId, String key, String requestHash) {
+        IdempotencyKey row = idempotencyKeyRepository.findByCustomerIdAndIdempotencyKey(customerId, key).orElse(null);
+        if (row == null) {
+            return null;
+        }
+        if (!row.getRequestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+        if (row.getExpiresAt().isBefore(LocalDateTime.now())) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(row.getId()));
+            return null;
+        }
+        if (!row.isCompleted()) {
+            throw busy();
+        }
+        StoredResponse stored = new StoredResponse(row.getRequestHash(), row.getStatusCode(), row.getLocation(),
+                row.getResponseBody(), row.getExpiresAt());
+        remember(cacheKey, stored);
+        return replay(stored, requestHash);
+    }
+
+    private IdempotencyKey newClaim(Long customerId, String key, String requestHash) {
+        IdempotencyKey claim = new IdempotencyKey();
+        claim.setCustomerId(customerId);
+        claim.setIdempotencyKey(key);
+        claim.setRequestHash(requestHash);
+        claim.setCreatedDate(claimTime());
+        claim.setExpiresAt(claim.getCreatedDate().plusHours(ttlHours));
+        return claim;
+    }
+
+    private StoredResponse toStored(String requestHash, ResponseEntity<?> response, LocalDateTime expiresAt) {
+        URI location = response.getHeaders().getLocation();
+        try {
+            String body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+            return new StoredResponse(requestHash, response.getStatusCode().value(),
+                    location == null ? null : location.toString(), body, expiresAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw keyReused();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.statusCode).header(REPLAYED_HEADER, "true");
+        if (stored.location != null) {
+            response.location(URI.create(stored.location));
+        }
+        if (stored.body == null) {
+            return response.build();
+        }
+        return response.contentType(MediaType.APPLICATION_JSON).body(stored.body);
+    }
+
+    private static ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers -> {
+                    headers.addAll(response.getHeaders());
+                    headers.set(REPLAYED_HEADER, "true");
+                })
+                .body(response.getBody());
+    }
+
+    private StoredResponse cached(String cacheKey) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(cacheKey);
+            if (stored != null && stored.expiresAt.isBefore(LocalDateTime.now())) {
+                recent.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(String cacheKey, StoredResponse stored) {
+        synchronized (recent) {
+            recent.put(cacheKey, stored);
+        }
+    }
+
+    private static ResponseEntity<?> join(CompletableFuture<ResponseEntity<?>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static CustomExceptions.ConflictException busy() {
+        return new CustomExceptions.ConflictException("a request with this " + HEADER + " is still being processed");
+    }
+
+    private static CustomExceptions.UnprocessableEntityException keyReused() {
+        return new CustomExceptions.UnprocessableEntityException(HEADER + " was already used for a different request");
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Request cannot be hashed", e);
+        }
+    }
+
+    private static class InFlight {
+        private final String requestHash;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+
+    private static class Claim {
+        private final Long id;
+        private final LocalDateTime claimedAt;
+
+        Claim(Long id, LocalDateTime claimedAt) {
+            this.id = id;
+            this.claimedAt = claimedAt;
+        }
+    }
+
+    private static class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String location;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        StoredResponse(String requestHash, int statusCode, String location, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.location = location;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.LowStockProperties;
+import com.ecommerce.dto.LowStockDto;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the products that are below their category's stock threshold, ordered by remaining stock.
+ * It is fed by the stock changes published from ProductService and OrderService, so the low-stock list
+ * never needs a table scan, and it pushes threshold crossings to Server-Sent Events subscribers.
+ */
+@Service
+public class LowStockMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    public static final String BELOW_THRESHOLD = "below-threshold";
+    public static final String RESTOCKED = "restocked";
+
+    @Autowired
+    private LowStockProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, LowStockDto> lowStockById = new HashMap<>();
+    private final TreeSet<LowStockDto> byStock = new TreeSet<>(
+            Comparator.comparing(LowStockDto::getStockQuantity).thenComparing(LowStockDto::getProductId));
+    // updatedDate (epoch millis) of the copy each product was last applied from
+    private final Map<Long, Long> updatedMillisById = new HashMap<>();
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    // Fan-out happens off the committing thread so a slow subscriber never delays an order
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void rebuild(Collection<Product> products) {
+        lock.lock();
+        try {
+            lowStockById.clear();
+            byStock.clear();
+            updatedMillisById.clear();
+            for (Product product : products) {
+                apply(product, false);
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Low-stock monitor tracking {} products", lowStockById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String crossing;
+        LowStockDto state;
+        lock.lock();
+        try {
+            crossing = apply(event.getProduct(), event.isDeleted());
+            state = toDto(event.getProduct());
+        } finally {
+            lock.unlock();
+        }
+        if (crossing != null && !subscribers.isEmpty()) {
+            notifier.execute(() -> broadcast(crossing, state));
+        }
+    }
+
+    public List<LowStockDto> getLowStock(String category, int limit) {
+        lock.lock();
+        try {
+            List<LowStockDto> result = new ArrayList<>(Math.min(limit, byStock.size()));
+            for (LowStockDto entry : byStock) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (category == null || category.equalsIgnoreCase(entry.getCategory())) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeoutMs());
+        subscribers.add(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    // Returns the threshold crossing caused by this change, or null when the product stayed on the same side
+    private String apply(Product product, boolean deleted) {
+        if (deleted) {
+            updatedMillisById.remove(product.getId());
+        } else {
+            // Concurrent commits publish in any order; applying an older stock level would report a false crossing
+            long updated = CatalogIndexService.toEpochMillis(product);
+            Long applied = updatedMillisById.get(product.getId());
+            if (applied != null && updated < applied) {
+                return null;
+            }
+            updatedMillisById.put(product.getId(), updated);
+        }
+        LowStockDto previous = lowStockById.remove(product.getId());
+        if (previous != null) {
+            byStock.remove(previous);
+        }
+        LowStockDto current = deleted ? null : toDto(product);
+        boolean low = current != null && current.getStockQuantity() < current.getThreshold();
+        if (low) {
+            lowStockById.put(product.getId(), current);
+            byStock.add(current);
+        }
+        if (low && previous == null) {
+            return BELOW_THRESHOLD;
+        }
+        if (!low && previous != null) {
+            return RESTOCKED;
+        }
+        return null;
+    }
+
+    private LowStockDto toDto(Product product) {
+        int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        return new LowStockDto(product.getId(), product.getName(), product.getCategory(), stock,
+                properties.thresholdFor(product.getCategory()));
+    }
+
+    private void broadcast(String eventName, LowStockDto state) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(state));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OrderDto;
+import com.ecommerce.dto.OrderItemCreateDto;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for order placement (opt-in with app.order-batching.enabled). Concurrent placements are
+ * collected for up to window-ms or max-batch orders and written in one transaction: stock of all products
+ * involved is locked and checked together, orders and items are inserted with JDBC batches and the commit
+ * is shared. Orders that cannot be placed in the batch (unknown customer or product, not enough stock) and
+ * whole batches that fail are retried one by one through OrderService.createOrder, which reports the error.
+ */
+@Service
+public class OrderBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatchService.class);
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (customer_id, order_date, status, total_amount) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.order-batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order-batching.window-ms:5}")
+    private long windowMs;
+
+    @Value("${app.order-batching.max-batch:64}")
+    private int maxBatch;
+
+    @Value("${app.order-batching.timeout-ms:30000}")
+    private long timeoutMs;
+
+    private final BlockingQueue<PendingOrder> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService retries = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread batcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        batcher = new Thread(this::run, "order-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (batcher != null) {
+            batcher.interrupt();
+            batcher.join(timeoutMs);
+        }
+        List<PendingOrder> left = new ArrayList<>();
+        queue.drainTo(left);
+        taken(left).forEach(this::retryAlone);
+        retries.shutdown();
+        retries.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Places the order with the next batch and waits for its outcome
+    public OrderDto placeOrder(Long customerId, List<OrderItemCreateDto> items) {
+        PendingOrder pending = new PendingOrder(customerId, items);
+        queue.add(pending);
+        try {
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            return withdrawOrAwait(pending, "Order placement timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return withdrawOrAwait(pending, "Interrupted while placing order");
+        }
+    }
+
+    // Gives up on an order no batch has taken yet; one that is already being written is waited for, so a caller
+    // is never told an order failed that is placed afterwards
+    private OrderDto withdrawOrAwait(PendingOrder pending, String message) {
+        if (pending.take()) {
+            queue.remove(pending);
+            throw new IllegalStateException(message);
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        while (running) {
+            List<PendingOrder> batch = new ArrayList<>(maxBatch);
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (queue.drainTo(batch, maxBatch - batch.size()) == 0) {
+                        PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                taken(batch).forEach(this::retryAlone);
+                return;
+            }
+            if (!taken(batch).isEmpty()) {
+                placeBatch(batch);
+            }
+        }
+    }
+
+    private void placeBatch(List<PendingOrder> batch) {
+        List<PendingOrder> rejected = new ArrayList<>();
+        Map<PendingOrder, OrderDto> placed;
+        try {
+            placed = transactionTemplate.execute(status -> writeBatch(batch, rejected));
+        } catch (RuntimeException e) {
+            logger.warn("Order batch of {} failed, placing its orders one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::retryAlone);
+            return;
+        }
+        placed.forEach((pending, dto) -> pending.result.complete(dto));
+        rejected.forEach(this::retryAlone);
+    }
+
+    // Runs inside the batch transaction; orders that do not fit are added to rejected instead
+    private Map<PendingOrder, OrderDto> writeBatch(List<PendingOrder> batch, List<PendingOrder> rejected) {
+        Set<Long> customerIds = new TreeSet<>();
+        Set<Long> productIds = new TreeSet<>();
+        for (PendingOrder pending : batch) {
+            customerIds.add(pending.customerId);
+            for (OrderItemCreateDto item : pending.items) {
+                productIds.add(item.getProductId());
+            }
+        }
+        Map<Long, Customer> customers = new HashMap<>();
+        customerRepository.findAllById(customerIds).forEach(customer -> customers.put(customer.getId(), customer));
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllByIdForUpdate(productIds).forEach(product -> products.put(product.getId(), product));
+
+        // Check orders in arrival order against the stock left by the ones before them
+        LocalDateTime now = LocalDateTime.now();
+        Map<PendingOrder, Order> accepted = new LinkedHashMap<>();
+        Map<Long, Product> touched = new LinkedHashMap<>();
+        for (PendingOrder pending : batch) {
+            Order order = buildOrder(pending, customers, products, now);
+            if (order == null) {
+                rejected.add(pending);
+                continue;
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                Product product = item.getProduct();
+                product.setStockQuantity(product.getStockQuantity() - item.getQuantity());
+                touched.put(product.getId(), product);
+            }
+            accepted.put(pending, order);
+        }
+        if (accepted.isEmpty()) {
+            return Map.of();
+        }
+
+        insertOrders(new ArrayList<>(accepted.values()));
+        insertItems(accepted.values());
+        // Stock changes are flushed by Hibernate at commit
+        touched.values().forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(product)));
+
+        Map<PendingOrder, OrderDto> placed = new LinkedHashMap<>();
+        accepted.forEach((pending, order) -> {
+            eventPublisher.publishEvent(OrderChangedEvent.of(order, null));
+            placed.put(pending, orderService.convertToDto(order));
+        });
+        return placed;
+    }
+
+    // The order as it would be placed, or null if it cannot be placed with the remaining stock
+    private static Order buildOrder(PendingOrder pending, Map<Long, Customer> customers, Map<Long, Product> products,
+                                    LocalDateTime now) {
+        Customer customer = customers.get(pending.customerId);
+        if (customer == null) {
+            return null;
+        }
+        Map<Long, Integer> needed = new HashMap<>();
+        List<OrderItem> items = new ArrayList<>(pending.items.size());
+        Order order = new Order();
+        Money totalAmount = Money.ZERO;
+        for (OrderItemCreateDto itemDto : pending.items) {
+            Product product = products.get(itemDto.getProductId());
+            int quantity = needed.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+            if (product == null || product.getStockQuantity() < quantity) {
+                return null;
+            }
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(itemDto.getQuantity());
+            item.setUnitPrice(product.getPrice());
+            items.add(item);
+            totalAmount = totalAmount.plus(item.getSubtotal());
+        }
+        order.setCustomer(customer);
+        order.setOrderDate(now);
+        order.setTotalAmount(totalAmount);
+        order.setOrderItems(items);
+        return order;
+    }
+
+    private void insertOrders(List<Order> orders) {
+        jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT_ORDER_SQL, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement statement) -> {
+                    for (Order order : orders) {
+                        statement.setLong(1, order.getCustomer().getId());
+                        statement.setTimestamp(2, Timestamp.valueOf(order.getOrderDate()));
+                        statement.setString(3, order.getStatus().name());
+                        statement.setBigDecimal(4, order.getTotalAmount().toBigDecimal());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Order order : orders) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated key for batched order");
+                            }
+                            order.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private void insertItems(Iterable<Order> orders) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                rows.add(new Object[] {order.getId(), item.getProduct().getId(), item.getQuantity(),
+                        item.getUnitPrice().toBigDecimal(), item.getSubtotal().toBigDecimal()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows);
+    }
+
+    // Keeps the orders whose callers are still waiting for them; withdrawn ones are dropped
+    private static List<PendingOrder> taken(List<PendingOrder> orders) {
+        orders.removeIf(pending -> !pending.take());
+        return orders;
+    }
+
+    private void retryAlone(PendingOrder pending) {
+        retries.execute(() -> {
+            try {
+                pending.result.complete(orderService.convertToDto(orderService.createOrder(pending.customerId, pending.items)));
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static class PendingOrder {
+        private final Long customerId;
+        private final List<OrderItemCreateDto> items;
+        private final CompletableFuture<OrderDto> result = new CompletableFuture<>();
+        // Set by whoever gets the order first: the batcher placing it or the caller withdrawing it
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        PendingOrder(Long customerId, List<OrderItemCreateDto> items) {
+            this.customerId = customerId;
+            this.items = items;
+        }
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.dto.OrderEventDto;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderEvent;
+import com.ecommerce.repository.OrderEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transactional outbox of order lifecycle changes, streamed to Server-Sent Events subscribers.
+ * The OrderChangedEvent published by OrderService and OrderBatchService is handled synchronously, so its
+ * order_events row commits or rolls back with the order itself. A single publisher thread reads new rows,
+ * keeps the most recent ones in memory and queues them for every subscriber; sender threads write the queues
+ * out, so a slow subscriber only delays itself and is disconnected when its queue is full. Idle subscribers
+ * cost an emitter and a cursor, no thread. Ids that are skipped because their transaction commits late are
+ * read again until retention and published when they appear. Subscribers resume after the event sent as
+ * Last-Event-ID, from memory in publish order or from the table. The publisher's reads are short pages by
+ * primary key, so it uses the shopper pool rather than queueing behind exports on the small admin pool.
+ */
+@Service
+public class OrderEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventService.class);
+
+    private static final int MAX_GAPS = 100_000;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.order-events.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.order-events.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.order-events.buffer-size:10000}")
+    private int bufferSize;
+
+    // Missing ids are read again every round for this long, then every gap-recheck-interval-ms until retention
+    @Value("${app.order-events.gap-timeout-ms:2000}")
+    private long gapTimeoutMs;
+
+    @Value("${app.order-events.gap-recheck-interval-ms:60000}")
+    private long gapRecheckIntervalMs;
+
+    // Events waiting to be written to one subscriber; a subscriber that falls this far behind is disconnected
+    @Value("${app.order-events.subscriber-queue-size:1000}")
+    private int subscriberQueueSize;
+
+    // Threads writing subscriber queues out; a write blocked on a stalled connection holds one until it fails
+    @Value("${app.order-events.sender-threads:16}")
+    private int senderThreads;
+
+    @Value("${app.order-events.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.order-events.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.order-events.retention-hours:72}")
+    private long retentionHours;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Committed order changes wake the publisher right away instead of at its next poll
+    private final Semaphore wakeups = new Semaphore(0);
+    // Writes to subscribers block on their connections, so they happen here and never on the publisher thread.
+    // Platform threads, as SseEmitter writes inside synchronized blocks and would pin virtual threads; bounded, as
+    // a heartbeat queues a write for every subscriber at once, and idle ones time out
+    private ThreadPoolExecutor senders;
+
+    // Owned by the publisher thread: the recent events as a ring indexed by publish sequence, the highest id
+    // read, and ids below it not seen yet (with when they were noticed), whose transactions may still commit
+    private OrderEventDto[] buffer;
+    private int buffered;
+    private long highestId;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long lastGapRecheck;
+    private long lastHeartbeat;
+    // Publish sequence of the newest buffered event
+    private volatile long lastSeq;
+
+    private Thread publisher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        buffer = new OrderEventDto[bufferSize];
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        senders.allowCoreThreadTimeOut(true);
+        highestId = orderEventRepository.findMaxId();
+        lastHeartbeat = System.currentTimeMillis();
+        running = true;
+        publisher = new Thread(this::publish, "order-event-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        publisher.interrupt();
+        publisher.join(TimeUnit.SECONDS.toMillis(10));
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // Runs inside the transaction that changed the order
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderEvent row = new OrderEvent();
+        row.setOrderId(event.getOrderId());
+        row.setCustomerId(event.getCustomerId());
+        row.setType(typeOf(event));
+        row.setPreviousStatus(event.getPreviousStatus());
+        row.setStatus(event.getStatus());
+        row.setTotalAmount(event.getTotalAmount());
+        orderEventRepository.save(row);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeups.release();
+                }
+            });
+        } else {
+            wakeups.release();
+        }
+    }
+
+    /**
+     * Subscribes to order events after lastEventId, or to new events only when it is null.
+     * statuses restricts the stream to events whose new status is one of them; null or empty means all.
+     */
+    public SseEmitter subscribe(Long lastEventId, Collection<Order.OrderStatus> statuses) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Set<Order.OrderStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(Order.OrderStatus.class) : EnumSet.copyOf(statuses);
+        Subscriber subscriber = new Subscriber(emitter, filter, subscriberQueueSize, lastEventId, lastSeq);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        if (lastEventId != null) {
+            wakeups.release();
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-events.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        Lane.ADMIN.call(() -> transactionTemplate.execute(status -> orderEventRepository.deleteOccurredBefore(before)));
+    }
+
+    private void publish() {
+        while (running) {
+            try {
+                // Local commits wake the publisher; the poll picks up events committed by other instances
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+                readNewEvents();
+                recheckGaps();
+                for (Subscriber subscriber : subscribers) {
+                    deliver(subscriber);
+                }
+                heartbeatIfDue();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Order event publisher failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void readNewEvents() {
+        List<OrderEvent> rows;
+        do {
+            rows = orderEventRepository.findAfter(highestId, PageRequest.of(0, pageSize));
+            long now = System.currentTimeMillis();
+            for (OrderEvent row : rows) {
+                // Ids are assigned at insert but become visible in commit order; the skipped ones are read again
+                for (long id = highestId + 1; id < row.getId() && gaps.size() < MAX_GAPS; id++) {
+                    gaps.put(id, now);
+                }
+                highestId = row.getId();
+                buffer(row);
+            }
+        } while (rows.size() == pageSize);
+    }
+
+    // Publishes missing ids that have committed since; ids still missing after retention were rolled back
+    private void recheckGaps() {
+        if (gaps.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean all = now - lastGapRecheck >= gapRecheckIntervalMs;
+        if (all) {
+            lastGapRecheck = now;
+        }
+        long expired = now - TimeUnit.HOURS.toMillis(retentionHours);
+        gaps.values().removeIf(noticed -> noticed < expired);
+        List<Long> ids = new ArrayList<>();
+        gaps.forEach((id, noticed) -> {
+            if (all || now - noticed < gapTimeoutMs) {
+                ids.add(id);
+            }
+        });
+        for (int from = 0; from < ids.size(); from += pageSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + pageSize));
+            List<OrderEvent> rows = new ArrayList<>(orderEventRepository.findAllById(chunk));
+            rows.sort(Comparator.comparing(OrderEvent::getId));
+            for (OrderEvent row : rows) {
+                gaps.remove(row.getId());
+                buffer(row);
+            }
+        }
+    }
+
+    private void buffer(OrderEvent row) {
+        buffer[slot(lastSeq + 1)] = toDto(row);
+        buffered = Math.min(bufferSize, buffered + 1);
+        lastSeq++;
+    }
+
+    // Publish sequence of the oldest buffered event; sequences are contiguous up to lastSeq
+    private long firstSeq() {
+        return lastSeq - buffered + 1;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % bufferSize);
+    }
+
+    // Queues for a subscriber what it has not been given yet, in publish order
+    private void deliver(Subscriber subscriber) {
+        if (subscriber.resumeAfterId != null) {
+            resume(subscriber, subscriber.resumeAfterId);
+            subscriber.resumeAfterId = null;
+        }
+        if (subscriber.catchUpAfterId >= 0 && !catchUp(subscriber)) {
+            return;
+        }
+        if (subscriber.seq >= lastSeq) {
+            return;
+        }
+        for (long seq = Math.max(subscriber.seq + 1, firstSeq()); seq <= lastSeq; seq++) {
+            if (!offer(subscriber, buffer[slot(seq)])) {
+                return;
+            }
+            subscriber.seq = seq;
+        }
+    }
+
+    private void resume(Subscriber subscriber, long afterId) {
+        // Continue after the event's place in publish order, so events that committed late with lower ids follow
+        for (long seq = firstSeq(); seq <= lastSeq; seq++) {
+            if (buffer[slot(seq)].getId() == afterId) {
+                subscriber.seq = seq;
+                return;
+            }
+        }
+        if (afterId >= highestId) {
+            subscriber.seq = lastSeq;
+        } else {
+            subscriber.startCatchUp(afterId, highestId, lastSeq);
+        }
+    }
+
+    // Reads a subscriber that resumed before the buffer from the table, a page per round as its queue has room;
+    // returns true once it can continue from the buffer
+    private boolean catchUp(Subscriber subscriber) {
+        int room = Math.min(pageSize, subscriber.outbox.remainingCapacity());
+        if (room == 0) {
+            return false;
+        }
+        List<OrderEvent> rows = orderEventRepository.findBetween(subscriber.catchUpAfterId, subscriber.catchUpUpToId,
+                PageRequest.of(0, room));
+        for (OrderEvent row : rows) {
+            if (!offer(subscriber, toDto(row))) {
+                return false;
+            }
+            subscriber.catchUpAfterId = row.getId();
+        }
+        if (rows.size() == room) {
+            wakeups.release();
+            return false;
+        }
+        // Everything buffered up to the catch-up's start had committed and was read; newer events follow
+        // from the buffer, unless it has dropped some of them in the meantime
+        if (lastSeq > subscriber.catchUpSeq && firstSeq() > subscriber.catchUpSeq + 1) {
+            subscriber.startCatchUp(subscriber.catchUpUpToId, highestId, lastSeq);
+            wakeups.release();
+            return false;
+        }
+        subscriber.seq = subscriber.catchUpSeq;
+        subscriber.catchUpAfterId = -1;
+        return true;
+    }
+
+    private boolean offer(Subscriber subscriber, OrderEventDto event) {
+        if (!subscriber.statuses.contains(event.getStatus())) {
+            return true;
+        }
+        return enqueue(subscriber, SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType().name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .data(event));
+    }
+
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.outbox.offer(event)) {
+            // It reads slower than events arrive; it reconnects with Last-Event-ID and catches up from the table
+            logger.info("Disconnecting order event subscriber with {} unsent events", subscriber.outbox.size());
+            close(subscriber, null);
+            return false;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.outbox.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    close(subscriber, e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.outbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // Completing waits for a send in progress, so it happens on a sender thread
+    private void close(Subscriber subscriber, Throwable error) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.outbox.clear();
+        senders.execute(() -> {
+            if (error == null) {
+                subscriber.emitter.complete();
+            } else {
+                subscriber.emitter.completeWithError(error);
+            }
+        });
+    }
+
+    // Comments keep idle connections open through proxies and reveal subscribers that went away
+    private void heartbeatIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat < heartbeatIntervalMs) {
+            return;
+        }
+        lastHeartbeat = now;
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private static OrderEvent.Type typeOf(OrderChangedEvent event) {
+        if (event.isCreated()) {
+            return OrderEvent.Type.CREATED;
+        }
+        return event.getStatus() == Order.OrderStatus.CANCELLED ? OrderEvent.Type.CANCELLED : OrderEvent.Type.STATUS_CHANGED;
+    }
+
+    private static OrderEventDto toDto(OrderEvent row) {
+        OrderEventDto dto = new OrderEventDto();
+        dto.setId(row.getId());
+        dto.setOrderId(row.getOrderId());
+        dto.setCustomerId(row.getCustomerId());
+        dto.setType(row.getType());
+        dto.setPreviousStatus(row.getPreviousStatus());
+        dto.setStatus(row.getStatus());
+        dto.setTotalAmount(row.getTotalAmount() == null ? null : row.getTotalAmount().toBigDecimal());
+        dto.setOccurredAt(row.getOccurredAt());
+        return dto;
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Order.OrderStatus> statuses;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // The rest is only used by the publisher thread: the Last-Event-ID still to be resolved, the publish
+        // sequence given so far, and while catching up from the table its id range and the sequence it joins at
+        private Long resumeAfterId;
+        private long seq;
+        private long catchUpAfterId = -1;
+        private long catchUpUpToId;
+        private long catchUpSeq;
+
+        Subscriber(SseEmitter emitter, Set<Order.OrderStatus> statuses, int queueSize, Long resumeAfterId, long seq) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+            this.outbox = new ArrayBlockingQueue<>(queueSize);
+            this.resumeAfterId = resumeAfterId;
+            this.seq = seq;
+        }
+
+        void startCatchUp(long afterId, long upToId, long joinSeq) {
+            catchUpAfterId = afterId;
+            catchUpUpToId = upToId;
+            catchUpSeq = joinSeq;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OrderItemCreateDto;
+import com.ecommerce.dto.OrderRequestDto;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderRequest;
+import com.ecommerce.repository.OrderRequestRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order placement (app.order-requests.enabled). Accepting an order only inserts a row into
+ * order_requests; workers claim pending rows in batches with FOR UPDATE SKIP LOCKED, so several workers
+ * (and several application instances) can drain the table without taking the same request twice.
+ * Each request is placed in its own transaction that also marks it PLACED, so a request is never placed twice
+ * even if a worker dies and its claimed requests are put back in the queue.
+ */
+@Service
+public class OrderRequestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderRequestService.class);
+
+    private static final TypeReference<List<OrderItemCreateDto>> ITEMS_TYPE = new TypeReference<>() {};
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private OrderRequestRepository orderRequestRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.order-requests.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.order-requests.workers:2}")
+    private int workers;
+
+    @Value("${app.order-requests.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.order-requests.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${app.order-requests.stale-after-ms:60000}")
+    private long staleAfterMs;
+
+    @Value("${app.order-requests.retention-hours:24}")
+    private long retentionHours;
+
+    // Accepted requests wake a worker right away instead of at its next poll
+    private final Semaphore wakeups = new Semaphore(0);
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Queues an order placement and returns its reference; the order is placed by a worker later
+    public OrderRequest accept(Long customerId, List<OrderItemCreateDto> items) {
+        OrderRequest request = new OrderRequest();
+        request.setReference(UUID.randomUUID().toString());
+        request.setCustomerId(customerId);
+        try {
+            request.setItems(objectMapper.writeValueAsString(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid order items", e);
+        }
+        OrderRequest saved = transactionTemplate.execute(status -> {
+            OrderRequest inserted = orderRequestRepository.save(request);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeups.release();
+                }
+            });
+            return inserted;
+        });
+        return saved;
+    }
+
+    public Optional<OrderRequest> getRequest(String reference) {
+        return orderRequestRepository.findByReference(reference);
+    }
+
+    // Owner of a request, for access checks; null when the reference is unknown
+    public Long getCustomerId(String reference) {
+        return orderRequestRepository.findByReference(reference).map(OrderRequest::getCustomerId).orElse(null);
+    }
+
+    public OrderRequestDto convertToDto(OrderRequest request) {
+        OrderRequestDto dto = new OrderRequestDto();
+        dto.setReference(request.getReference());
+        dto.setStatus(request.getStatus());
+        dto.setOrderId(request.getOrderId());
+        dto.setError(request.getError());
+        dto.setCreatedDate(request.getCreatedDate());
+        dto.setUpdatedDate(request.getUpdatedDate());
+        return dto;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-requests.maintenance-interval-ms:60000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer requeued = transactionTemplate.execute(status ->
+                orderRequestRepository.requeueStale(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(staleAfterMs)), now));
+        if (requeued != null && requeued > 0) {
+            logger.warn("Requeued {} order requests left in PROCESSING", requeued);
+            wakeups.release(requeued);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                orderRequestRepository.deleteFinishedBefore(now.minusHours(retentionHours)));
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                List<Long> claimed = claim();
+                if (claimed.isEmpty()) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                for (Long id : claimed) {
+                    place(id);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Typically the database being unavailable; claimed requests are requeued once stale
+                logger.warn("Order request worker failed: {}", e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    private List<Long> claim() {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = orderRequestRepository.lockPendingIds(batchSize);
+            if (!ids.isEmpty()) {
+                orderRequestRepository.updateStatus(ids, OrderRequest.Status.PROCESSING, LocalDateTime.now());
+            }
+            return ids;
+        });
+    }
+
+    private void place(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderRequest request = orderRequestRepository.findByIdForUpdate(id).orElse(null);
+                if (request == null || request.getStatus() != OrderRequest.Status.PROCESSING) {
+                    return;
+                }
+                Order order = orderService.createOrder(request.getCustomerId(), readItems(request));
+                request.setStatus(OrderRequest.Status.PLACED);
+                request.setOrderId(order.getId());
+                request.setError(null);
+            });
+        } catch (TransientDataAccessException e) {
+            // Lock timeouts and deadlocks are worth another attempt
+            transactionTemplate.executeWithoutResult(status ->
+                    orderRequestRepository.updateStatus(List.of(id), OrderRequest.Status.PENDING, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            transactionTemplate.executeWithoutResult(status -> orderRequestRepository.findById(id).ifPresent(request -> {
+                request.setStatus(OrderRequest.Status.FAILED);
+                request.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            }));
+        }
+    }
+
+    private List<OrderItemCreateDto> readItems(OrderRequest request) {
+        try {
+            return objectMapper.readValue(request.getItems(), ITEMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable order items of request " + request.getReference(), e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.event.ProductChangedEvent;
 import com.ecommerce.model.*;
 import com.ecommerce.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +23,9 @@ import java.util.Optional;
 @Transactional
 public class OrderService {
 
+    private static final List<Order.OrderStatus> OPEN_STATUSES =
+            List.of(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED);
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -31,9 +38,19 @@ public class OrderService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
-    public Page<Order> getAllOrders(int page, int size) {
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    public Page<Order> getAllOrders(int page, int size, CountedPage.CountStrategy countStrategy) {
         Pageable pageable = PageRequest.of(page, size);
-        return orderRepository.findAll(pageable);
+        return pageCountService.toPage(orderRepository.findSliceBy(pageable), countStrategy, "orders",
+                orderRepository::count, () -> pageCountService.tableRowEstimate("orders"));
     }
 
     public Optional<Order> getOrderById(Long id) {
@@ -45,6 +62,51 @@ public class OrderService {
         return orderRepository.findByCustomerId(customerId, pageable);
     }
 
+    // One page of a customer's orders, newest first, after the "orderDate,id" cursor of the previous page
+    @Transactional(readOnly = true)
+    public OrderHistoryDto getOrderHistory(Long customerId, String cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findByCustomerIdOrderByOrderDateDescIdDesc(customerId, pageable);
+        } else {
+            int separator = cursor.lastIndexOf(',');
+            try {
+                orders = orderRepository.findHistoryBefore(customerId, LocalDateTime.parse(cursor.substring(0, separator)),
+                        Long.valueOf(cursor.substring(separator + 1)), pageable);
+            } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = orders.subList(0, limit);
+            Order last = orders.get(limit - 1);
+            nextCursor = last.getOrderDate() + "," + last.getId();
+        }
+        List<OrderDto> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add(convertToDto(order));
+        }
+        return new OrderHistoryDto(customerOrderSummaryService.getSummary(customerId), dtos, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDto> getRecentOrders(Long customerId, int limit) {
+        List<OrderDto> dtos = new ArrayList<>(limit);
+        for (Order order : orderRepository.findByCustomerIdOrderByOrderDateDescIdDesc(customerId, PageRequest.of(0, limit))) {
+            dtos.add(convertToDto(order));
+        }
+        return dtos;
+    }
+
+    // Orders that are placed but not yet delivered or cancelled
+    @Transactional(readOnly = true)
+    public long countOpenOrders(Long customerId) {
+        return orderRepository.countByCustomerIdAndStatusIn(customerId, OPEN_STATUSES);
+    }
+
     public List<Order> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
@@ -56,7 +118,7 @@ public class OrderService {
         Order order = new Order();
         order.setCustomer(customer);
         
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Money totalAmount = Money.ZERO;
         List<OrderItem> orderItems = new ArrayList<>();
 
         for (OrderItemCreateDto itemDto : orderItemDtos) {
@@ -74,25 +136,33 @@ public class OrderService {
             orderItem.setUnitPrice(product.getPrice());
             
             orderItems.add(orderItem);
-            totalAmount = totalAmount.add(orderItem.getSubtotal());
+            totalAmount = totalAmount.plus(orderItem.getSubtotal());
 
             // Update stock
             product.setStockQuantity(product.getStockQuantity() - itemDto.getQuantity());
             productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(product));
         }
 
         order.setTotalAmount(totalAmount);
         order.setOrderItems(orderItems);
         
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(savedOrder, null));
+        return savedOrder;
     }
 
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
         
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (previousStatus != status) {
+            eventPublisher.publishEvent(OrderChangedEvent.of(savedOrder, previousStatus));
+        }
+        return savedOrder;
     }
 
     public void cancelOrder(Long orderId) {
@@ -108,10 +178,13 @@ public class OrderService {
             Product product = item.getProduct();
             product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
             productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(product));
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.cancelled(order, previousStatus));
     }
 
     public OrderDto convertToDto(Order order) {
@@ -121,7 +194,7 @@ public class OrderService {
         dto.setCustomerName(order.getCustomer().getFirstName() + " " + order.getCustomer().getLastName());
         dto.setOrderDate(order.getOrderDate());
         dto.setStatus(order.getStatus());
-        dto.setTotalAmount(order.getTotalAmount());
+        dto.setTotalAmount(order.getTotalAmount().toBigDecimal());
         
         // Convert order items
         List<OrderItemDto> orderItemDtos = new ArrayList<>();
@@ -131,8 +204,8 @@ public class OrderService {
             itemDto.setProductId(item.getProduct().getId());
             itemDto.setProductName(item.getProduct().getName());
             itemDto.setQuantity(item.getQuantity());
-            itemDto.setUnitPrice(item.getUnitPrice());
-            itemDto.setSubtotal(item.getSubtotal());
+            itemDto.setUnitPrice(item.getUnitPrice().toBigDecimal());
+            itemDto.setSubtotal(item.getSubtotal().toBigDecimal());
             orderItemDtos.add(itemDto);
         }
         dto.setOrderItems(orderItemDtos);
@@ -0,0 +1,126 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.PaginationProperties;
+import com.ecommerce.dto.CountedPage;
+import com.ecommerce.dto.CountedPage.CountStrategy;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns a count-free Slice into a page whose total comes from the configured count strategy.
+ * Cached counts are keyed by table and filter ("products:category:books") and dropped for the whole
+ * table when it is written to.
+ */
+@Service
+public class PageCountService {
+
+    private static final String TABLE_ROWS_SQL =
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    @Autowired
+    private PaginationProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    // The strategy requested with ?count=, or the endpoint's configured one
+    public CountStrategy resolve(String endpoint, String requested) {
+        if (requested == null || requested.isBlank()) {
+            return properties.strategyFor(endpoint);
+        }
+        try {
+            return CountStrategy.valueOf(requested.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("count must be one of exact, cached or estimated");
+        }
+    }
+
+    /**
+     * Builds the page for a slice. estimate may be null when no cheap estimate exists, in which case
+     * the cached exact count is used. The last page always reports its exact total, known from the slice itself.
+     */
+    public <T> CountedPage<T> toPage(Slice<T> slice, CountStrategy strategy, String cacheKey,
+                                     LongSupplier exactCount, LongSupplier estimate) {
+        Pageable pageable = slice.getPageable();
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            return new CountedPage<>(slice.getContent(), pageable, seen, CountStrategy.EXACT);
+        }
+
+        CountStrategy used = strategy == CountStrategy.ESTIMATED && estimate == null ? CountStrategy.CACHED : strategy;
+        long total = switch (used) {
+            case EXACT -> exactCount.getAsLong();
+            case CACHED -> cachedCount(cacheKey, exactCount);
+            case ESTIMATED -> estimate.getAsLong();
+        };
+        // The slice itself proves the rows up to here exist, and one more when it has a next page
+        total = Math.max(total, seen + (slice.hasNext() ? 1 : 0));
+        return new CountedPage<>(slice.getContent(), pageable, total, used);
+    }
+
+    // Row estimate from InnoDB statistics, refreshed at most once per cache TTL
+    public long tableRowEstimate(String table) {
+        return cachedCount("estimate:" + table, () -> {
+            Long rows = jdbcTemplate.queryForObject(TABLE_ROWS_SQL, Long.class, table);
+            return rows == null ? 0 : rows;
+        });
+    }
+
+    // Drops every cached count of a table
+    public void invalidate(String table) {
+        counts.keySet().removeIf(key -> key.equals(table) || key.startsWith(table + ":"));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Stock and price changes, such as every checkout, leave all product counts as they are
+        if (event.isListingChanged()) {
+            invalidate("products");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.isCreated()) {
+            invalidate("orders");
+        }
+    }
+
+    private long cachedCount(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+        long value = loader.getAsLong();
+        // Search terms make the key space open-ended, so the cache is simply reset when it grows too large
+        if (counts.size() >= properties.getCountCacheMaxEntries()) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(value, now + properties.getCountCacheTtlMs()));
+        return value;
+    }
+
+    private static class CachedCount {
+        private final long value;
+        private final long expiresAt;
+
+        CachedCount(long value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
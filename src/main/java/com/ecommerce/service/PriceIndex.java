@@ -0,0 +1,218 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalog sorted by (price in cents, id), held in parallel primitive arrays.
+ * Range lookups are a binary search followed by a forward scan, and pages continue from a
+ * (price, id) cursor instead of an offset. Only price and category changes move an entry.
+ */
+@Service
+public class PriceIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] priceCents = new long[0];
+    private long[] productIds = new long[0];
+    private int[] categoryCodes = new int[0];
+    private int size;
+
+    private final Map<Long, Long> priceCentsById = new HashMap<>();
+    // Last modification applied per product, so a change that arrives after a newer one is ignored
+    private final Map<Long, Long> updatedMillisById = new HashMap<>();
+    private final Map<Long, Integer> categoryCodeById = new HashMap<>();
+    private final Map<String, Integer> categoryCodesByKey = new HashMap<>();
+
+    public static class Range {
+        private final long[] productIds;
+        private final String nextCursor;
+
+        Range(long[] productIds, String nextCursor) {
+            this.productIds = productIds;
+            this.nextCursor = nextCursor;
+        }
+
+        public long[] getProductIds() { return productIds; }
+
+        public String getNextCursor() { return nextCursor; }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Product product = event.getProduct();
+            if (event.isDeleted()) {
+                remove(product.getId());
+                updatedMillisById.remove(product.getId());
+                return;
+            }
+            long updated = CatalogIndexService.toEpochMillis(product);
+            Long applied = updatedMillisById.get(product.getId());
+            if (applied != null && updated < applied) {
+                return;
+            }
+            updatedMillisById.put(product.getId(), updated);
+            long cents = product.getPrice().getCents();
+            int category = categoryCode(product.getCategory());
+            Long currentCents = priceCentsById.get(product.getId());
+            if (currentCents != null && currentCents == cents && categoryCodeById.get(product.getId()) == category) {
+                return;
+            }
+            remove(product.getId());
+            insert(cents, product.getId(), category);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            priceCentsById.clear();
+            categoryCodeById.clear();
+            updatedMillisById.clear();
+            categoryCodesByKey.clear();
+            long[][] entries = new long[products.size()][];
+            int i = 0;
+            for (Product product : products) {
+                entries[i++] = new long[] {product.getPrice().getCents(), product.getId(),
+                        categoryCode(product.getCategory())};
+            }
+            Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+            int capacity = Math.max(64, entries.length * 5 / 4);
+            priceCents = new long[capacity];
+            productIds = new long[capacity];
+            categoryCodes = new int[capacity];
+            size = entries.length;
+            for (i = 0; i < entries.length; i++) {
+                priceCents[i] = entries[i][0];
+                productIds[i] = entries[i][1];
+                categoryCodes[i] = (int) entries[i][2];
+                priceCentsById.put(entries[i][1], entries[i][0]);
+                categoryCodeById.put(entries[i][1], (int) entries[i][2]);
+            }
+            for (Product product : products) {
+                updatedMillisById.put(product.getId(), CatalogIndexService.toEpochMillis(product));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Products priced within [minCents, maxCents] in ascending price order, starting after the cursor
+    public Range range(long minCents, long maxCents, String category, String cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            int position;
+            if (cursor != null && !cursor.isBlank()) {
+                long[] after = parseCursor(cursor);
+                position = Math.max(search(minCents, Long.MIN_VALUE), search(after[0], after[1] + 1));
+            } else {
+                position = search(minCents, Long.MIN_VALUE);
+            }
+
+            Integer categoryFilter = null;
+            if (category != null && !category.isBlank()) {
+                categoryFilter = categoryCodesByKey.get(categoryKey(category));
+                if (categoryFilter == null) {
+                    return new Range(new long[0], null);
+                }
+            }
+
+            long[] ids = new long[limit];
+            int found = 0;
+            int last = -1;
+            for (; position < size && priceCents[position] <= maxCents && found < limit; position++) {
+                if (categoryFilter == null || categoryCodes[position] == categoryFilter) {
+                    ids[found++] = productIds[position];
+                    last = position;
+                }
+            }
+            String nextCursor = found == limit && last >= 0 ? priceCents[last] + ":" + productIds[last] : null;
+            return new Range(Arrays.copyOf(ids, found), nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long cents, long productId, int category) {
+        if (size == priceCents.length) {
+            int capacity = Math.max(64, priceCents.length * 2);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        }
+        int position = search(cents, productId);
+        System.arraycopy(priceCents, position, priceCents, position + 1, size - position);
+        System.arraycopy(productIds, position, productIds, position + 1, size - position);
+        System.arraycopy(categoryCodes, position, categoryCodes, position + 1, size - position);
+        priceCents[position] = cents;
+        productIds[position] = productId;
+        categoryCodes[position] = category;
+        size++;
+        priceCentsById.put(productId, cents);
+        categoryCodeById.put(productId, category);
+    }
+
+    private void remove(long productId) {
+        Long cents = priceCentsById.remove(productId);
+        categoryCodeById.remove(productId);
+        if (cents == null) {
+            return;
+        }
+        int position = search(cents, productId);
+        if (position < size && productIds[position] == productId) {
+            System.arraycopy(priceCents, position + 1, priceCents, position, size - position - 1);
+            System.arraycopy(productIds, position + 1, productIds, position, size - position - 1);
+            System.arraycopy(categoryCodes, position + 1, categoryCodes, position, size - position - 1);
+            size--;
+        }
+    }
+
+    // First position whose (price, id) is greater than or equal to the given key
+    private int search(long cents, long productId) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (priceCents[mid] < cents || (priceCents[mid] == cents && productIds[mid] < productId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int categoryCode(String category) {
+        return categoryCodesByKey.computeIfAbsent(categoryKey(category), key -> categoryCodesByKey.size());
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] parseCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new long[] {Long.parseLong(cursor.substring(0, separator)), Long.parseLong(cursor.substring(separator + 1))};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
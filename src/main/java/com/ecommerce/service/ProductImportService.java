@@ -0,0 +1,330 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ImportResultDto;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.exception.CustomExceptions;
+import com.ecommerce.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON product feed and upserts it in chunks with JDBC batch statements.
+ * Products are matched on name, compared case-insensitively like the database collation. Names have no
+ * unique key, so imports run one at a time across all nodes, under a MySQL named lock held on a connection
+ * of their own for the whole import. Only one chunk and a bounded list of row errors are held in memory at any time.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int MAX_CHUNK_SIZE = 10000;
+
+    private static final String IMPORT_LOCK = "ecommerce.product-import";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, category, stock_quantity, created_date, updated_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE products SET description = ?, price = ?, category = ?, stock_quantity = ?, updated_date = ? " +
+            "WHERE id = ?";
+
+    public enum Format { CSV, NDJSON }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogWarmupService catalogWarmupService;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    @Value("${app.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    // How long an import waits for one already running before it is refused
+    @Value("${app.import.lock-timeout-seconds:10}")
+    private int lockTimeoutSeconds;
+
+    private static class ImportRow {
+        private final long line;
+        private final ProductDto product;
+        private final String error;
+
+        ImportRow(long line, ProductDto product, String error) {
+            this.line = line;
+            this.product = product;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        // Next row, or null at end of input
+        ImportRow next() throws IOException;
+    }
+
+    public ImportResultDto importProducts(InputStream input, Format format, Integer chunkSize) throws IOException {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!lock(lockConnection)) {
+                throw new CustomExceptions.ConflictException("another product import is running");
+            }
+            try {
+                return runImport(input, format, chunkSize);
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not take the product import lock: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, IMPORT_LOCK);
+            statement.setInt(2, lockTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    // Closing the connection would release the lock too, but a pooled connection is not closed
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, IMPORT_LOCK);
+            statement.execute();
+        }
+    }
+
+    private ImportResultDto runImport(InputStream input, Format format, Integer chunkSize) throws IOException {
+        int size = chunkSize == null || chunkSize <= 0 ? defaultChunkSize : Math.min(chunkSize, MAX_CHUNK_SIZE);
+        long start = System.nanoTime();
+        ImportResultDto result = new ImportResultDto();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource source = format == Format.CSV ? csvSource(reader) : ndjsonSource(reader);
+        List<ImportRow> chunk = new ArrayList<>(size);
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            result.setRowsRead(result.getRowsRead() + 1);
+            String error = row.error != null ? row.error : validate(row.product);
+            if (error != null) {
+                recordError(result, row.line, error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() >= size) {
+                flush(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, result);
+        }
+
+        if (result.getInserted() + result.getUpdated() > 0) {
+            catalogWarmupService.reload();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : result.getRowsRead() * 1_000_000_000.0 / elapsedNanos);
+        logger.info("Product import read {} rows ({} inserted, {} updated, {} failed) in {} ms",
+                result.getRowsRead(), result.getInserted(), result.getUpdated(), result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void flush(List<ImportRow> chunk, ImportResultDto result) {
+        try {
+            apply(chunk, result);
+        } catch (RuntimeException e) {
+            // One bad row fails the whole batch; going row by row rejects only the rows the database refuses
+            logger.warn("Product import chunk starting at line {} failed, retrying it row by row: {}",
+                    chunk.get(0).line, e.getMessage());
+            for (ImportRow row : chunk) {
+                try {
+                    apply(List.of(row), result);
+                } catch (RuntimeException rowError) {
+                    recordError(result, row.line, "Rejected by the database: " + rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void apply(List<ImportRow> rows, ImportResultDto result) {
+        int[] counts = transactionTemplate.execute(status -> upsert(rows));
+        result.setInserted(result.getInserted() + counts[0]);
+        result.setUpdated(result.getUpdated() + counts[1]);
+    }
+
+    private int[] upsert(List<ImportRow> chunk) {
+        // Later rows for the same product win within a chunk
+        Map<String, ProductDto> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (ImportRow row : chunk) {
+            byName.put(row.product.getName(), row.product);
+        }
+
+        Map<String, Long> existingIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        namedParameterJdbcTemplate.query("SELECT id, name FROM products WHERE name IN (:names) ORDER BY id",
+                Map.of("names", byName.keySet()),
+                (RowCallbackHandler) rs -> existingIds.putIfAbsent(rs.getString("name"), rs.getLong("id")));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (ProductDto product : byName.values()) {
+            Long id = existingIds.get(product.getName());
+            if (id == null) {
+                inserts.add(new Object[] {product.getName(), product.getDescription(), product.getPrice(),
+                        product.getCategory(), product.getStockQuantity(), now, now});
+            } else {
+                updates.add(new Object[] {product.getDescription(), product.getPrice(), product.getCategory(),
+                        product.getStockQuantity(), now, id});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return new int[] {inserts.size(), updates.size()};
+    }
+
+    private String validate(ProductDto product) {
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void recordError(ImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResultDto.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new TreeMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "category", "stockquantity")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+
+        return () -> {
+            List<String> record;
+            do {
+                record = csv.readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            long line = csv.getRecordLine();
+            try {
+                ProductDto product = new ProductDto();
+                product.setName(emptyToNull(field(record, columns.get("name"))));
+                product.setDescription(emptyToNull(field(record, columns.get("description"))));
+                product.setCategory(emptyToNull(field(record, columns.get("category"))));
+                String price = field(record, columns.get("price"));
+                product.setPrice(price == null || price.isBlank() ? null : new BigDecimal(price.trim()));
+                String stock = field(record, columns.get("stockquantity"));
+                product.setStockQuantity(stock == null || stock.isBlank() ? null : Integer.valueOf(stock.trim()));
+                return new ImportRow(line, product, null);
+            } catch (NumberFormatException e) {
+                return new ImportRow(line, null, "Invalid number: " + e.getMessage());
+            }
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new ImportRow(lineNumber[0], objectMapper.readValue(line, ProductDto.class), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber[0], null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static String field(List<String> record, Integer index) {
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
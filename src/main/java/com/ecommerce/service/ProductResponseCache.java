@@ -0,0 +1,191 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of pre-serialized (and optionally pre-gzipped) JSON for hot catalog responses.
+ * Product detail entries are validated against the product's last modification time,
+ * category pages are keyed by the catalog version. Entries are evicted least-recently-used
+ * once the configured memory budget is exceeded.
+ */
+@Service
+public class ProductResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${app.response-cache.gzip:true}")
+    private boolean gzipEnabled;
+
+    @Value("${app.response-cache.gzip-min-bytes:512}")
+    private int gzipMinBytes;
+
+    private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public static class CachedResponse {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final long version;
+        private final long sizeInBytes;
+        private volatile long lastAccess;
+
+        CachedResponse(byte[] json, byte[] gzip, long version, int keyLength) {
+            this.json = json;
+            this.gzip = gzip;
+            this.version = version;
+            this.sizeInBytes = json.length + (gzip == null ? 0 : gzip.length) + 2L * keyLength + ENTRY_OVERHEAD_BYTES;
+            this.lastAccess = System.nanoTime();
+        }
+
+        public byte[] getJson() { return json; }
+
+        public byte[] getGzip() { return gzip; }
+
+        public long getVersion() { return version; }
+    }
+
+    // Returns the cached product payload only if it was built from the given modification time
+    public CachedResponse getProduct(Long productId, long lastModified) {
+        if (lastModified <= 0) {
+            return null;
+        }
+        CachedResponse cached = get(productKey(productId));
+        return cached != null && cached.version == lastModified ? cached : null;
+    }
+
+    public CachedResponse putProduct(Long productId, long lastModified, Object body) {
+        return put(productKey(productId), lastModified, body);
+    }
+
+    public CachedResponse getCategoryPage(String category, int size, long catalogVersion) {
+        CachedResponse cached = get(categoryKey(category, size));
+        return cached != null && cached.version == catalogVersion ? cached : null;
+    }
+
+    public CachedResponse putCategoryPage(String category, int size, long catalogVersion, Object body) {
+        return put(categoryKey(category, size), catalogVersion, body);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        remove(productKey(event.getProduct().getId()));
+        // Category pages are keyed by the catalog version, which has just moved on
+        for (String key : entries.keySet()) {
+            if (key.startsWith("category:")) {
+                remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        for (String key : entries.keySet()) {
+            remove(key);
+        }
+    }
+
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    private CachedResponse get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached != null) {
+            cached.lastAccess = System.nanoTime();
+        }
+        return cached;
+    }
+
+    private CachedResponse put(String key, long version, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize cached response for " + key, e);
+        }
+        byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+        CachedResponse cached = new CachedResponse(json, gzip, version, key.length());
+        if (cached.sizeInBytes > maxBytes) {
+            return cached;
+        }
+
+        CachedResponse previous = entries.put(key, cached);
+        usedBytes.addAndGet(cached.sizeInBytes - (previous == null ? 0 : previous.sizeInBytes));
+        if (usedBytes.get() > maxBytes) {
+            evict();
+        }
+        return cached;
+    }
+
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            usedBytes.addAndGet(-removed.sizeInBytes);
+        }
+    }
+
+    // Drops the least recently used entries until usage is back to 90% of the budget
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Map.Entry<String, CachedResponse>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            long target = maxBytes / 10 * 9;
+            for (Map.Entry<String, CachedResponse> candidate : candidates) {
+                if (usedBytes.get() <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    usedBytes.addAndGet(-candidate.getValue().sizeInBytes);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String productKey(Long productId) {
+        return "product:" + productId;
+    }
+
+    private static String categoryKey(String category, int size) {
+        return "category:" + category.trim().toLowerCase(Locale.ROOT) + ":" + size;
+    }
+}
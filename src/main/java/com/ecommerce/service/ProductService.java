@@ -1,16 +1,35 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CountedPage;
+import com.ecommerce.dto.PriceRangePageDto;
 import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.RelatedProductDto;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Money;
 import com.ecommerce.model.Product;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductResponseCache.CachedResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -20,57 +39,210 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
-    public Page<Product> getAllProducts(int page, int size, String sortBy, String sortDir) {
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+
+    @Autowired
+    private PriceIndex priceIndex;
+
+    @Autowired
+    private ProductResponseCache responseCache;
+
+    @Autowired
+    private CoPurchaseIndex coPurchaseIndex;
+
+    @Autowired
+    private PageCountService pageCountService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Page<Product> getAllProducts(int page, int size, String sortBy, String sortDir,
+                                        CountedPage.CountStrategy countStrategy) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : 
             Sort.by(sortBy).ascending();
         
         Pageable pageable = PageRequest.of(page, size, sort);
-        return productRepository.findAll(pageable);
+        return pageCountService.toPage(productRepository.findSliceBy(pageable), countStrategy, "products",
+                productRepository::count, catalogIndexService::size);
     }
 
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
-    public Page<Product> getProductsByCategory(String category, int page, int size) {
+    @Transactional(readOnly = true)
+    public PriceRangePageDto getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                     String cursor, int size) {
+        long minCents = minPrice == null ? 0 : Money.of(minPrice).getCents();
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : Money.of(maxPrice).getCents();
+        if (minCents > maxCents) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        PriceIndex.Range range = priceIndex.range(minCents, maxCents, category, cursor, size);
+
+        List<Long> ids = new ArrayList<>(range.getProductIds().length);
+        for (long id : range.getProductIds()) {
+            ids.add(id);
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        List<ProductDto> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                items.add(convertToDto(product));
+            }
+        }
+        return new PriceRangePageDto(items, range.getNextCursor());
+    }
+
+    // Products most often bought together with the given one; deleted partners are skipped
+    @Transactional(readOnly = true)
+    public List<RelatedProductDto> getRelatedProducts(Long productId, int limit) {
+        CoPurchaseIndex.Partners partners = coPurchaseIndex.related(productId, limit);
+        List<Long> ids = new ArrayList<>(partners.getProductIds().length);
+        for (long id : partners.getProductIds()) {
+            ids.add(id);
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        List<RelatedProductDto> related = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Product product = products.get(ids.get(i));
+            if (product != null) {
+                related.add(new RelatedProductDto(convertToDto(product), partners.getCounts()[i]));
+            }
+        }
+        return related;
+    }
+
+    // Products for the given ids as {"products":[...],"missingIds":[...]} in request order.
+    // Cached payloads are spliced in as-is and the remaining ids are loaded with a single IN query.
+    @Transactional(readOnly = true)
+    public byte[] lookupProductsJson(List<Long> ids) {
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, byte[]> payloads = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : requested) {
+            CachedResponse cached = responseCache.getProduct(id, catalogIndexService.lastModified(id));
+            if (cached != null) {
+                payloads.put(id, cached.getJson());
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            for (Product product : productRepository.findAllById(toLoad)) {
+                long lastModified = CatalogIndexService.toEpochMillis(product);
+                payloads.put(product.getId(), responseCache.putProduct(product.getId(), lastModified, convertToDto(product)).getJson());
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * requested.size() + 64);
+        List<Long> missingIds = new ArrayList<>();
+        out.writeBytes("{\"products\":[".getBytes(StandardCharsets.UTF_8));
+        boolean first = true;
+        for (Long id : requested) {
+            byte[] payload = payloads.get(id);
+            if (payload == null) {
+                missingIds.add(id);
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(payload);
+            first = false;
+        }
+        StringBuilder tail = new StringBuilder("],\"missingIds\":[");
+        for (int i = 0; i < missingIds.size(); i++) {
+            if (i > 0) {
+                tail.append(',');
+            }
+            tail.append(missingIds.get(i));
+        }
+        tail.append("]}");
+        out.writeBytes(tail.toString().getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    public Page<Product> getProductsByCategory(String category, int page, int size,
+                                               CountedPage.CountStrategy countStrategy) {
+        Pageable pageable = PageRequest.of(page, size);
+        return pageCountService.toPage(productRepository.findSliceByCategory(category, pageable), countStrategy,
+                "products:category:" + category.toLowerCase(Locale.ROOT),
+                () -> productRepository.countByCategory(category), () -> catalogIndexService.countCategory(category));
+    }
+
+    // Free-text search has no cheap estimate, so ESTIMATED falls back to the cached count
+    public Page<Product> searchProducts(String searchTerm, int page, int size, CountedPage.CountStrategy countStrategy) {
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findByCategory(category, pageable);
+        return pageCountService.toPage(productRepository.searchProductsSlice(searchTerm, pageable), countStrategy,
+                "products:search:" + searchTerm.toLowerCase(Locale.ROOT),
+                () -> productRepository.countSearchResults(searchTerm), null);
     }
 
-    public Page<Product> searchProducts(String searchTerm, int page, int size) {
+    public Page<Product> filterProducts(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                                        Boolean inStock, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.searchProducts(searchTerm, pageable);
+        long[] ids = catalogIndexService.matchingIds(categories, minPrice, maxPrice, inStock);
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + size, ids.length);
+        if (from == to) {
+            return new PageImpl<>(List.of(), pageable, ids.length);
+        }
+
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[i]);
+        }
+        List<Product> products = new ArrayList<>(productRepository.findAllById(pageIds));
+        products.sort(Comparator.comparing(Product::getId));
+        return new PageImpl<>(products, pageable, ids.length);
     }
 
     public Product createProduct(ProductDto productDto) {
         Product product = new Product();
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
-        product.setPrice(productDto.getPrice());
+        product.setPrice(Money.of(productDto.getPrice()));
         product.setCategory(productDto.getCategory());
         product.setStockQuantity(productDto.getStockQuantity());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     public Product updateProduct(Long id, ProductDto productDto) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        boolean listingChanged = !Objects.equals(product.getName(), productDto.getName())
+                || !Objects.equals(product.getDescription(), productDto.getDescription())
+                || !Objects.equals(product.getCategory(), productDto.getCategory());
         
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
-        product.setPrice(productDto.getPrice());
+        product.setPrice(Money.of(productDto.getPrice()));
         product.setCategory(productDto.getCategory());
         product.setStockQuantity(productDto.getStockQuantity());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(saved, listingChanged));
+        return saved;
     }
 
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
     }
 
     public ProductDto convertToDto(Product product) {
@@ -78,7 +250,7 @@ public class ProductService {
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
+        dto.setPrice(product.getPrice().toBigDecimal());
         dto.setCategory(product.getCategory());
         dto.setStockQuantity(product.getStockQuantity());
         return dto;
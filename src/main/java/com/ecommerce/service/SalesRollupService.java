@@ -0,0 +1,268 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.Lane;
+import com.ecommerce.dto.SalesReportDto;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.SalesRollup;
+import com.ecommerce.model.SalesRollup.Dimension;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.SalesRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains daily sales aggregates per day, category and product in the sales_rollups table.
+ * Order changes insert their deltas into sales_rollup_deltas in the order's own transaction, so a delta exists
+ * exactly when its change committed, and checkout never contends on the hot aggregate rows. Deltas are folded
+ * into the rollups periodically; dashboard queries read O(days) rows.
+ * Cancelled orders do not count; a status change into or out of CANCELLED subtracts or re-adds the order.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    public static final String ALL_KEY = "all";
+
+    private static final String INSERT_DELTA_SQL =
+            "INSERT INTO sales_rollup_deltas (dimension, sales_date, dimension_key, revenue, units, order_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // The SELECT is a locking read, so deltas with lower ids that are still being committed are waited for
+    private static final String FOLD_DELTAS_SQL =
+            "INSERT INTO sales_rollups (dimension, sales_date, dimension_key, revenue, units, order_count) " +
+            "SELECT dimension, sales_date, dimension_key, SUM(revenue), SUM(units), SUM(order_count) " +
+            "FROM sales_rollup_deltas WHERE id <= ? GROUP BY dimension, sales_date, dimension_key " +
+            "ON DUPLICATE KEY UPDATE revenue = sales_rollups.revenue + VALUES(revenue), " +
+            "units = sales_rollups.units + VALUES(units), order_count = sales_rollups.order_count + VALUES(order_count)";
+
+    private static final String DELETE_DELTAS_SQL =
+            "DELETE FROM sales_rollup_deltas WHERE id <= ?";
+
+    private static final String DELETE_RANGE_DELTAS_SQL =
+            "DELETE FROM sales_rollup_deltas WHERE sales_date >= ? AND sales_date < ?";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM sales_rollups WHERE sales_date >= ? AND sales_date < ?";
+
+    // %s is the dimension literal, the key expression and the grouping column
+    private static final String BACKFILL_SQL =
+            "INSERT INTO sales_rollups (dimension, sales_date, dimension_key, revenue, units, order_count) " +
+            "SELECT '%s', DATE(o.order_date), %s, SUM(oi.subtotal), SUM(oi.quantity), COUNT(DISTINCT o.id) " +
+            "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND o.status <> 'CANCELLED' " +
+            "GROUP BY DATE(o.order_date)%s";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.reports.backfill-parallelism:4}")
+    private int backfillParallelism;
+
+    @Value("${app.reports.backfill-chunk-days:7}")
+    private int backfillChunkDays;
+
+    @Value("${app.reports.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        int sign = counted(event.getStatus()) - counted(event.getPreviousStatus());
+        if (sign == 0 || event.getOrderDate() == null) {
+            return;
+        }
+        Date date = Date.valueOf(event.getOrderDate().toLocalDate());
+        List<Object[]> rows = new ArrayList<>();
+        long units = 0;
+        Map<String, long[]> byCategory = new HashMap<>();
+        for (OrderChangedEvent.Line line : event.getLines()) {
+            units += line.getQuantity();
+            long[] category = byCategory.computeIfAbsent(line.getCategory(), key -> new long[2]);
+            category[0] += line.getSubtotal().getCents();
+            category[1] += line.getQuantity();
+            rows.add(delta(Dimension.PRODUCT, date, String.valueOf(line.getProductId()),
+                    sign * line.getSubtotal().getCents(), sign * line.getQuantity(), sign));
+        }
+        for (Map.Entry<String, long[]> entry : byCategory.entrySet()) {
+            rows.add(delta(Dimension.CATEGORY, date, entry.getKey(), sign * entry.getValue()[0], sign * entry.getValue()[1], sign));
+        }
+        rows.add(delta(Dimension.DAY, date, ALL_KEY, sign * event.getTotalAmount().getCents(), sign * units, sign));
+        jdbcTemplate.batchUpdate(INSERT_DELTA_SQL, rows);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reports.flush-interval-ms:5000}")
+    public void flush() {
+        // A lock rather than synchronized: the flush does JDBC I/O and would pin a virtual thread's carrier
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Folds the committed deltas into the rollups and deletes them in one transaction
+    private void flushPending() {
+        try {
+            Long upTo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM sales_rollup_deltas", Long.class);
+            if (upTo == null) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(FOLD_DELTAS_SQL, upTo);
+                jdbcTemplate.update(DELETE_DELTAS_SQL, upTo);
+            });
+        } catch (DataAccessException e) {
+            // The deltas stay in their table, the next flush retries them
+            logger.warn("Sales rollup flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    public List<SalesReportDto> getSalesReport(LocalDate from, LocalDate to, Dimension groupBy) {
+        // Flush first so a dashboard sees orders committed before the request
+        flush();
+        List<SalesRollup> rollups = salesRollupRepository
+                .findByDimensionAndSalesDateBetweenOrderBySalesDateAscDimensionKeyAsc(groupBy, from, to);
+
+        Map<String, String> labels = new HashMap<>();
+        if (groupBy == Dimension.PRODUCT) {
+            List<Long> productIds = rollups.stream().map(rollup -> Long.valueOf(rollup.getDimensionKey())).distinct().toList();
+            for (Product product : productRepository.findAllById(productIds)) {
+                labels.put(String.valueOf(product.getId()), product.getName());
+            }
+        }
+
+        List<SalesReportDto> report = new ArrayList<>(rollups.size());
+        for (SalesRollup rollup : rollups) {
+            String label = groupBy == Dimension.PRODUCT ? labels.get(rollup.getDimensionKey()) : rollup.getDimensionKey();
+            report.add(new SalesReportDto(rollup.getSalesDate(), rollup.getDimensionKey(), label,
+                    rollup.getRevenue().toBigDecimal(), rollup.getUnits(), rollup.getOrderCount()));
+        }
+        return report;
+    }
+
+    /**
+     * Recomputes the rollups for [from, to] from orders and order_items. The range is split into
+     * chunks of days that are rebuilt in parallel, each in its own transaction.
+     * Returns the number of rollup rows written.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A sales rollup backfill is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, backfillParallelism));
+            try {
+                int rows = pool.invoke(new BackfillTask(from, to.plusDays(1)));
+                logger.info("Rebuilt {} sales rollup rows for {} to {} in {} ms", rows, from, to,
+                        System.currentTimeMillis() - started);
+                return rows;
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup || salesRollupRepository.count() > 0) {
+            return;
+        }
+        Map<String, Object> span = jdbcTemplate.queryForMap("SELECT MIN(order_date) AS first, MAX(order_date) AS last FROM orders");
+        if (span.get("first") == null) {
+            return;
+        }
+        backfill(((Timestamp) span.get("first")).toLocalDateTime().toLocalDate(),
+                ((Timestamp) span.get("last")).toLocalDateTime().toLocalDate());
+    }
+
+    private int rebuildRange(LocalDate from, LocalDate toExclusive) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(toExclusive.atStartOfDay());
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_RANGE_SQL, Date.valueOf(from), Date.valueOf(toExclusive));
+            int written = jdbcTemplate.update(String.format(BACKFILL_SQL, Dimension.DAY.name(), "'" + ALL_KEY + "'", ""), start, end);
+            written += jdbcTemplate.update(String.format(BACKFILL_SQL, Dimension.CATEGORY.name(), "p.category", ", p.category"), start, end);
+            written += jdbcTemplate.update(String.format(BACKFILL_SQL, Dimension.PRODUCT.name(), "CAST(oi.product_id AS CHAR)", ", oi.product_id"), start, end);
+            // The recomputed totals include every change whose delta is still unflushed: the locking reads above
+            // waited for order changes in flight, and new ones stay blocked until this commits
+            jdbcTemplate.update(DELETE_RANGE_DELTAS_SQL, Date.valueOf(from), Date.valueOf(toExclusive));
+            return written;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private static Object[] delta(Dimension dimension, Date date, String key, long revenueCents, long units, long orders) {
+        return new Object[] {dimension.name(), date, key, BigDecimal.valueOf(revenueCents, 2), units, orders};
+    }
+
+    private static int counted(Order.OrderStatus status) {
+        return status == null || status == Order.OrderStatus.CANCELLED ? 0 : 1;
+    }
+
+    private class BackfillTask extends RecursiveTask<Integer> {
+        private final LocalDate from;
+        private final LocalDate toExclusive;
+
+        BackfillTask(LocalDate from, LocalDate toExclusive) {
+            this.from = from;
+            this.toExclusive = toExclusive;
+        }
+
+        @Override
+        protected Integer compute() {
+            long days = ChronoUnit.DAYS.between(from, toExclusive);
+            if (days <= Math.max(1, backfillChunkDays)) {
+                // Backfills scan whole days of orders, so they use the admin connection pool
+                return Lane.ADMIN.call(() -> rebuildRange(from, toExclusive));
+            }
+            LocalDate middle = from.plusDays(days / 2);
+            BackfillTask left = new BackfillTask(from, middle);
+            left.fork();
+            int right = new BackfillTask(middle, toExclusive).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.event.OrderChangedEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Best sellers by units over a sliding window of days, overall and per category.
+ * Each product keeps one counter per day of the window; committed order changes adjust the bucket of the
+ * order's day and the expired day is dropped once per day. After every change the top-K lists of the
+ * touched rankings are republished, so reads are a map lookup no matter how many orders exist.
+ */
+@Service
+public class TopSellersLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopSellersLeaderboard.class);
+
+    private static final String REBUILD_SQL =
+            "SELECT oi.product_id, p.name, p.category, DATE(o.order_date) AS order_day, SUM(oi.quantity) AS units " +
+            "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.order_date >= ? AND o.status <> 'CANCELLED' " +
+            "GROUP BY oi.product_id, p.name, p.category, DATE(o.order_date)";
+
+    private static final Comparator<Counter> BY_UNITS =
+            Comparator.comparingLong((Counter counter) -> counter.total).reversed().thenComparingLong(counter -> counter.productId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int windowDays;
+    private final int topK;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Counter> counters = new HashMap<>();
+    // Products with sales in the window, keyed by lower-cased category; the null key ranks all products
+    private final Map<String, TreeSet<Counter>> rankings = new HashMap<>();
+    private volatile long currentDay = LocalDate.now().toEpochDay();
+
+    // Published top-K lists, replaced wholesale on every change
+    private final Map<String, List<TopSellerDto>> published = new ConcurrentHashMap<>();
+    private volatile List<TopSellerDto> publishedOverall = List.of();
+
+    public TopSellersLeaderboard(@Value("${app.top-sellers.window-days:7}") int windowDays,
+                                 @Value("${app.top-sellers.size:20}") int topK) {
+        if (windowDays < 1 || topK < 1) {
+            throw new IllegalArgumentException("Top-sellers window and size must be positive");
+        }
+        this.windowDays = windowDays;
+        this.topK = topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.lock();
+        try {
+            counters.clear();
+            rankings.clear();
+            published.clear();
+            currentDay = LocalDate.now().toEpochDay();
+            LocalDate firstDay = LocalDate.ofEpochDay(currentDay - windowDays + 1);
+            jdbcTemplate.query(REBUILD_SQL, (RowCallbackHandler) rs -> {
+                Counter counter = counters.computeIfAbsent(rs.getLong("product_id"),
+                        id -> new Counter(id, windowDays));
+                counter.name = rs.getString("name");
+                counter.category = rs.getString("category");
+                counter.add(rs.getDate("order_day").toLocalDate().toEpochDay(), rs.getLong("units"));
+            }, Timestamp.valueOf(firstDay.atStartOfDay()));
+            for (Counter counter : counters.values()) {
+                if (counter.total > 0) {
+                    rank(counter);
+                }
+            }
+            republishAll();
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Top-sellers leaderboard rebuilt for {} products over {} days in {} ms",
+                counters.size(), windowDays, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        int sign = counted(event.getStatus()) - counted(event.getPreviousStatus());
+        if (sign == 0 || event.getOrderDate() == null) {
+            return;
+        }
+        long day = event.getOrderDate().toLocalDate().toEpochDay();
+        lock.lock();
+        try {
+            rollIfNeeded();
+            if (day <= currentDay - windowDays || day > currentDay) {
+                return;
+            }
+            Set<String> touched = new HashSet<>();
+            for (OrderChangedEvent.Line line : event.getLines()) {
+                Counter counter = counters.computeIfAbsent(line.getProductId(), id -> new Counter(id, windowDays));
+                unrank(counter);
+                if (counter.name == null) {
+                    counter.name = line.getProductName();
+                    counter.category = line.getCategory();
+                }
+                counter.add(day, (long) sign * line.getQuantity());
+                if (counter.total > 0) {
+                    rank(counter);
+                }
+                touched.add(categoryKey(counter.category));
+            }
+            for (String category : touched) {
+                republish(category);
+            }
+            republish(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Keeps names and categories current and drops deleted products from the rankings
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        lock.lock();
+        try {
+            Counter counter = counters.get(product.getId());
+            if (counter == null) {
+                return;
+            }
+            if (!event.isDeleted() && product.getName().equals(counter.name)
+                    && product.getCategory().equals(counter.category)) {
+                return;
+            }
+            String previousCategory = categoryKey(counter.category);
+            unrank(counter);
+            if (event.isDeleted()) {
+                counters.remove(product.getId());
+            } else {
+                counter.name = product.getName();
+                counter.category = product.getCategory();
+                if (counter.total > 0) {
+                    rank(counter);
+                }
+                republish(categoryKey(counter.category));
+            }
+            republish(previousCategory);
+            republish(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<TopSellerDto> getTopSellers(String category, int limit) {
+        if (LocalDate.now().toEpochDay() != currentDay) {
+            roll();
+        }
+        List<TopSellerDto> top = category == null ? publishedOverall : published.getOrDefault(categoryKey(category), List.of());
+        return top.size() > limit ? top.subList(0, limit) : top;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    @Scheduled(cron = "${app.top-sellers.roll-cron:0 0 0 * * *}")
+    public void roll() {
+        lock.lock();
+        try {
+            rollIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops the buckets that left the window; runs at most once per day
+    private void rollIfNeeded() {
+        long today = LocalDate.now().toEpochDay();
+        if (today == currentDay) {
+            return;
+        }
+        currentDay = today;
+        long oldestDay = today - windowDays + 1;
+        rankings.clear();
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.expireBefore(oldestDay);
+            if (counter.total > 0) {
+                rank(counter);
+            } else {
+                iterator.remove();
+            }
+        }
+        published.clear();
+        republishAll();
+    }
+
+    private void rank(Counter counter) {
+        rankings.computeIfAbsent(null, key -> new TreeSet<>(BY_UNITS)).add(counter);
+        rankings.computeIfAbsent(categoryKey(counter.category), key -> new TreeSet<>(BY_UNITS)).add(counter);
+    }
+
+    // Must run before a counter's total changes, the sets are ordered by it
+    private void unrank(Counter counter) {
+        TreeSet<Counter> overall = rankings.get(null);
+        if (overall != null) {
+            overall.remove(counter);
+        }
+        TreeSet<Counter> byCategory = rankings.get(categoryKey(counter.category));
+        if (byCategory != null) {
+            byCategory.remove(counter);
+        }
+    }
+
+    private void republishAll() {
+        for (String category : rankings.keySet()) {
+            republish(category);
+        }
+        if (!rankings.containsKey(null)) {
+            publishedOverall = List.of();
+        }
+    }
+
+    private void republish(String category) {
+        TreeSet<Counter> ranking = rankings.get(category);
+        List<TopSellerDto> top = new ArrayList<>(topK);
+        if (ranking != null) {
+            for (Counter counter : ranking) {
+                if (top.size() >= topK) {
+                    break;
+                }
+                top.add(new TopSellerDto(counter.productId, counter.name, counter.category, counter.total));
+            }
+        }
+        List<TopSellerDto> snapshot = Collections.unmodifiableList(top);
+        if (category == null) {
+            publishedOverall = snapshot;
+        } else if (snapshot.isEmpty()) {
+            published.remove(category);
+        } else {
+            published.put(category, snapshot);
+        }
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? null : category.toLowerCase(Locale.ROOT);
+    }
+
+    private static int counted(Order.OrderStatus status) {
+        return status == null || status == Order.OrderStatus.CANCELLED ? 0 : 1;
+    }
+
+    private static class Counter {
+        private final long productId;
+        private String name;
+        private String category;
+        // Ring of daily buckets indexed by epoch day modulo the window length
+        private final long[] units;
+        private final long[] days;
+        private long total;
+
+        Counter(long productId, int windowDays) {
+            this.productId = productId;
+            this.units = new long[windowDays];
+            this.days = new long[windowDays];
+            Arrays.fill(days, Long.MIN_VALUE);
+        }
+
+        void add(long day, long quantity) {
+            int slot = (int) Math.floorMod(day, (long) units.length);
+            if (days[slot] != day) {
+                total -= units[slot];
+                units[slot] = 0;
+                days[slot] = day;
+            }
+            // A cancellation can never take a day below zero, even if its order was counted before a rebuild
+            long updated = Math.max(0, units[slot] + quantity);
+            total += updated - units[slot];
+            units[slot] = updated;
+        }
+
+        void expireBefore(long oldestDay) {
+            for (int slot = 0; slot < units.length; slot++) {
+                if (days[slot] < oldestDay && units[slot] != 0) {
+                    total -= units[slot];
+                    units[slot] = 0;
+                }
+            }
+        }
+    }
+}
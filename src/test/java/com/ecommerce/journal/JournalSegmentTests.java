@@ -0,0 +1,113 @@
+package com.ecommerce.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalSegmentTests {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int FRAME_SIZE = JournalSegment.FRAME_OVERHEAD + JournalRecord.stockDelta(0, 0, 0, 0).encodedSize();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void cutsAndZeroesTornTailOfLastSegment() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SEGMENT_SIZE);
+        segment.activate(0);
+        ByteBuffer written = frames(4);
+        // The last frame only got its header and part of its payload to disk
+        written.limit(written.limit() - 5);
+        segment.append(written);
+        Path path = directory.resolve("00000000000000000001.journal");
+
+        JournalSegment reopened = JournalSegment.open(path, true);
+
+        int end = JournalSegment.HEADER_SIZE + 3 * FRAME_SIZE;
+        assertThat(reopened.getEnd()).isEqualTo(end);
+        assertThat(reopened.getEndOffset()).isEqualTo(3L * FRAME_SIZE);
+        assertThat(reopened.read(JournalSegment.HEADER_SIZE + 2 * FRAME_SIZE).getOrderId()).isEqualTo(3);
+        assertThat(reopened.read(end)).isNull();
+        byte[] bytes = Files.readAllBytes(path);
+        for (int i = end; i < bytes.length; i++) {
+            assertThat(bytes[i]).as("byte %d", i).isZero();
+        }
+    }
+
+    @Test
+    void stopsRecoveryAtFrameWithBadChecksum() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SEGMENT_SIZE);
+        segment.activate(0);
+        segment.append(frames(3));
+        Path path = directory.resolve("00000000000000000001.journal");
+        corrupt(path, JournalSegment.HEADER_SIZE + FRAME_SIZE + JournalSegment.FRAME_OVERHEAD + 10);
+
+        JournalSegment reopened = JournalSegment.open(path, true);
+
+        assertThat(reopened.getEnd()).isEqualTo(JournalSegment.HEADER_SIZE + FRAME_SIZE);
+        assertThat(reopened.read(JournalSegment.HEADER_SIZE).getOrderId()).isEqualTo(1);
+        assertThat(reopened.read(JournalSegment.HEADER_SIZE + FRAME_SIZE)).isNull();
+        // The intact frame after the corrupt one is gone too; it was never reported durable
+        assertThat(Files.readAllBytes(path)[JournalSegment.HEADER_SIZE + 2 * FRAME_SIZE]).isZero();
+    }
+
+    @Test
+    void rejectsCorruptFrameOfEarlierSegmentWhenRead() throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, SEGMENT_SIZE);
+        segment.activate(0);
+        segment.append(frames(3));
+        Path path = directory.resolve("00000000000000000001.journal");
+        corrupt(path, JournalSegment.HEADER_SIZE + FRAME_SIZE + JournalSegment.FRAME_OVERHEAD + 10);
+
+        JournalSegment reopened = JournalSegment.open(path, false);
+
+        assertThat(reopened.getEnd()).isEqualTo(JournalSegment.HEADER_SIZE + 3 * FRAME_SIZE);
+        assertThat(reopened.read(JournalSegment.HEADER_SIZE).getOrderId()).isEqualTo(1);
+        assertThatThrownBy(() -> reopened.read(JournalSegment.HEADER_SIZE + FRAME_SIZE))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Corrupt order journal record at offset " + FRAME_SIZE);
+    }
+
+    @Test
+    void rejectsFileWithoutJournalHeader() throws IOException {
+        Path path = directory.resolve("00000000000000000001.journal");
+        Files.write(path, new byte[SEGMENT_SIZE]);
+
+        assertThatThrownBy(() -> JournalSegment.open(path, true))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not an order journal segment");
+    }
+
+    // Stock delta frames for orders 1 to count, laid out the way OrderJournal.append writes them
+    private static ByteBuffer frames(int count) {
+        ByteBuffer frames = ByteBuffer.allocate(count * FRAME_SIZE);
+        for (int i = 1; i <= count; i++) {
+            JournalRecord record = JournalRecord.stockDelta(1000 + i, i, 100 + i, -i);
+            int start = frames.position();
+            frames.position(start + JournalSegment.FRAME_OVERHEAD);
+            record.encode(frames);
+            ByteBuffer payload = frames.slice(start + JournalSegment.FRAME_OVERHEAD, record.encodedSize());
+            frames.putInt(start, record.encodedSize()).putInt(start + 4, JournalSegment.checksum(payload));
+        }
+        return frames.flip();
+    }
+
+    private static void corrupt(Path path, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) (value.get(0) ^ 0xFF)).rewind();
+            channel.write(value, position);
+        }
+    }
+}
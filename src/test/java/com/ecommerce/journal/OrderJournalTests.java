@@ -0,0 +1,132 @@
+package com.ecommerce.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTests {
+
+    private static final int FRAME_SIZE = JournalSegment.FRAME_OVERHEAD + JournalRecord.stockDelta(0, 0, 0, 0).encodedSize();
+    // More than one 1 MB segment holds
+    private static final int RECORDS = 40_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<OrderJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void stopJournals() throws InterruptedException {
+        for (OrderJournal journal : journals) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndReplaysAcrossThem() throws Exception {
+        OrderJournal journal = start();
+        long end = appendOrders(journal, 1, RECORDS);
+
+        assertThat(end).isEqualTo((long) RECORDS * FRAME_SIZE);
+        assertThat(activeSegments()).isGreaterThanOrEqualTo(2);
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        assertThat(journal.replay(0, replayed::add)).isEqualTo(end);
+        assertOrders(replayed, 1, RECORDS);
+    }
+
+    @Test
+    void continuesPagedReplayOverSegmentBoundaries() throws Exception {
+        OrderJournal journal = start();
+        long end = appendOrders(journal, 1, RECORDS);
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        long offset = 0;
+        while (offset < end) {
+            int before = replayed.size();
+            offset = journal.replay(offset, 999, replayed::add);
+            assertThat(replayed.size() - before).isBetween(1, 999);
+        }
+        assertThat(offset).isEqualTo(end);
+        assertOrders(replayed, 1, RECORDS);
+    }
+
+    @Test
+    void reopensWhereItLeftOff() throws Exception {
+        OrderJournal journal = start();
+        long end = appendOrders(journal, 1, RECORDS);
+        journal.stop();
+        assertThat(journal.getDurableOffset()).isEqualTo(end);
+
+        OrderJournal reopened = start();
+        assertThat(reopened.getStartOffset()).isZero();
+        assertThat(reopened.getEndOffset()).isEqualTo(end);
+
+        long newEnd = appendOrders(reopened, RECORDS + 1, 100);
+        assertThat(newEnd).isEqualTo(end + 100L * FRAME_SIZE);
+        List<JournalRecord> replayed = new ArrayList<>();
+        reopened.replay(0, replayed::add);
+        assertOrders(replayed, 1, RECORDS + 100);
+    }
+
+    private OrderJournal start() throws Exception {
+        OrderJournal journal = new OrderJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(journal, "fsyncIntervalMs", 10L);
+        ReflectionTestUtils.setField(journal, "maxSegments", 32);
+        journal.start();
+        journals.add(journal);
+        return journal;
+    }
+
+    private static long appendOrders(OrderJournal journal, long firstOrderId, int count) {
+        long end = journal.getEndOffset();
+        List<JournalRecord> batch = new ArrayList<>();
+        for (long orderId = firstOrderId; orderId < firstOrderId + count; orderId++) {
+            batch.add(JournalRecord.stockDelta(orderId, orderId, orderId % 50, -1));
+            if (batch.size() == 100) {
+                end = journal.append(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            end = journal.append(batch);
+        }
+        return end;
+    }
+
+    private static void assertOrders(List<JournalRecord> records, long firstOrderId, int count) {
+        assertThat(records).hasSize(count);
+        for (int i = 0; i < count; i++) {
+            JournalRecord record = records.get(i);
+            assertThat(record.getType()).isEqualTo(JournalRecord.Type.STOCK_DELTA);
+            assertThat(record.getOrderId()).isEqualTo(firstOrderId + i);
+            assertThat(record.getOffset()).isEqualTo((firstOrderId - 1 + i) * FRAME_SIZE);
+        }
+    }
+
+    private long activeSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                try {
+                    return JournalSegment.readBaseOffset(file) >= 0;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).count();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.reactive;
+
+import com.ecommerce.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+// Runs the reactive catalog against an in-memory H2 database instead of MySQL
+@SpringBootTest(classes = ReactiveCatalogApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///catalog;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password="
+        })
+@ActiveProfiles(ReactiveCatalogApplication.PROFILE)
+class ReactiveCatalogApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void createProducts() {
+        databaseClient.sql("DROP TABLE IF EXISTS products").then().block();
+        databaseClient.sql("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, description TEXT, " +
+                "price DECIMAL(10,2) NOT NULL, category VARCHAR(255) NOT NULL, stock_quantity INT NOT NULL, " +
+                "created_date TIMESTAMP, updated_date TIMESTAMP)").then().block();
+        databaseClient.sql("INSERT INTO products (id, name, description, price, category, stock_quantity) VALUES " +
+                "(1, 'Laptop', 'Thin and light', 999.99, 'Electronics', 5), " +
+                "(2, 'Phone', 'Smartphone', 499.50, 'Electronics', 10), " +
+                "(3, 'Novel', 'Paperback', 12.00, 'Books', 40)").then().block();
+    }
+
+    @Test
+    void getsProductById() {
+        webTestClient.get().uri("/api/products/1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Laptop")
+                .jsonPath("$.price").isEqualTo(999.99);
+        webTestClient.get().uri("/api/products/99").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void listsCategoryAndSearchResults() {
+        webTestClient.get().uri("/api/products/category/Electronics?size=10").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDto.class).hasSize(2);
+        webTestClient.get().uri("/api/products/search?searchTerm=Paper").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDto.class).hasSize(1);
+        webTestClient.get().uri("/api/products?sortBy=price&sortDir=desc&size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    void refusesWrites() {
+        webTestClient.post().uri("/api/products").bodyValue(new ProductDto()).exchange()
+                .expectStatus().is4xxClientError();
+    }
+}
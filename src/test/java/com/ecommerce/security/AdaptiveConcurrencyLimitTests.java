@@ -0,0 +1,110 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void growsWhileBusyAndFastUpToMaximum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings(10, 2, 12, 0));
+
+        fillAndRelease(limit, FAST, 3);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        fillAndRelease(limit, FAST, 100);
+        assertThat(limit.getLimit()).isEqualTo(12);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings(10, 2, 12, 0));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire(false)).isTrue();
+            limit.release(FAST, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void backsOffOnSlowOrFailedRequestsDownToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings(10, 2, 12, 0));
+
+        assertThat(limit.tryAcquire(false)).isTrue();
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        assertThat(limit.tryAcquire(false)).isTrue();
+        limit.release(FAST, true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+
+        fillAndRelease(limit, SLOW, 3);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsPriorityReserveForPriorityRequests() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings(10, 2, 12, 0.2));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(limit.tryAcquire(false)).isTrue();
+        }
+        assertThat(limit.tryAcquire(false)).isFalse();
+        assertThat(limit.tryAcquire(true)).isTrue();
+        assertThat(limit.tryAcquire(true)).isTrue();
+        assertThat(limit.tryAcquire(true)).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+
+        // Releasing without a latency frees the slot but leaves the limit alone
+        limit.release();
+        assertThat(limit.getInFlight()).isEqualTo(9);
+        assertThat(limit.getLimit()).isEqualTo(10);
+        assertThat(limit.tryAcquire(false)).isFalse();
+        assertThat(limit.tryAcquire(true)).isTrue();
+    }
+
+    @Test
+    void clampsInitialLimitAndRejectsInvalidBounds() {
+        assertThat(new AdaptiveConcurrencyLimit(settings(50, 2, 12, 0)).getLimit()).isEqualTo(12);
+        assertThat(new AdaptiveConcurrencyLimit(settings(1, 2, 12, 0)).getLimit()).isEqualTo(2);
+
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(settings(10, 0, 12, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(settings(10, 5, 4, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Acquires every priority slot the limit allows and releases them all with the given latency, rounds times
+    private static void fillAndRelease(AdaptiveConcurrencyLimit limit, long latencyNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limit.tryAcquire(true)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(latencyNanos, false);
+            }
+        }
+    }
+
+    private static ConcurrencyLimitProperties.Group settings(int initial, int min, int max, double priorityReserve) {
+        ConcurrencyLimitProperties.Group settings = new ConcurrencyLimitProperties.Group();
+        settings.setInitialLimit(initial);
+        settings.setMinLimit(min);
+        settings.setMaxLimit(max);
+        settings.setLatencyTargetMs(100);
+        settings.setBackoffRatio(0.5);
+        settings.setPriorityReserve(priorityReserve);
+        return settings;
+    }
+}
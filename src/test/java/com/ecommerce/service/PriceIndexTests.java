@@ -0,0 +1,91 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceIndexTests {
+
+    private static final LocalDateTime LOADED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private PriceIndex index;
+
+    @BeforeEach
+    void rebuild() {
+        index = new PriceIndex();
+        index.rebuild(List.of(
+                product(1, 500, "Books", 0),
+                product(2, 300, "Electronics", 0),
+                product(3, 300, "Books", 0),
+                product(4, 700, "Electronics", 0),
+                product(5, 900, "Books", 0)));
+    }
+
+    @Test
+    void pagesThroughRangeWithCursor() {
+        PriceIndex.Range first = index.range(300, 800, null, null, 2);
+        assertThat(first.getProductIds()).containsExactly(2, 3);
+        assertThat(first.getNextCursor()).isEqualTo("300:3");
+
+        PriceIndex.Range second = index.range(300, 800, null, first.getNextCursor(), 2);
+        assertThat(second.getProductIds()).containsExactly(1, 4);
+        assertThat(second.getNextCursor()).isEqualTo("700:4");
+
+        PriceIndex.Range last = index.range(300, 800, null, second.getNextCursor(), 2);
+        assertThat(last.getProductIds()).isEmpty();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void filtersByCategory() {
+        PriceIndex.Range books = index.range(0, 1000, " books ", null, 10);
+        assertThat(books.getProductIds()).containsExactly(3, 1, 5);
+        assertThat(books.getNextCursor()).isNull();
+
+        assertThat(index.range(0, 1000, "Garden", null, 10).getProductIds()).isEmpty();
+    }
+
+    @Test
+    void movesRemovesAndInsertsChangedProducts() {
+        index.onProductChanged(ProductChangedEvent.updated(product(5, 100, "Books", 1), false));
+        index.onProductChanged(ProductChangedEvent.deleted(product(2, 300, "Electronics", 1)));
+        index.onProductChanged(ProductChangedEvent.saved(product(6, 300, "Garden", 1)));
+
+        assertThat(index.range(0, 1000, null, null, 10).getProductIds()).containsExactly(5, 3, 6, 1, 4);
+        assertThat(index.range(0, 1000, "Garden", null, 10).getProductIds()).containsExactly(6);
+
+        // Paging continues correctly after the arrays shifted
+        PriceIndex.Range first = index.range(0, 1000, null, null, 3);
+        assertThat(index.range(0, 1000, null, first.getNextCursor(), 3).getProductIds()).containsExactly(1, 4);
+    }
+
+    @Test
+    void ignoresChangeOlderThanIndexedCopy() {
+        index.onProductChanged(ProductChangedEvent.updated(product(1, 800, "Books", 2), false));
+        index.onProductChanged(ProductChangedEvent.updated(product(1, 200, "Books", 1), false));
+
+        assertThat(index.range(0, 1000, null, null, 10).getProductIds()).containsExactly(2, 3, 4, 1, 5);
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> index.range(0, 1000, null, "300-3", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: 300-3");
+    }
+
+    private static Product product(long id, long cents, String category, int minutesAfterLoad) {
+        Product product = new Product("Product " + id, null, Money.ofCents(cents), category, 10);
+        product.setId(id);
+        product.setUpdatedDate(LOADED.plusMinutes(minutesAfterLoad));
+        return product;
+    }
+}
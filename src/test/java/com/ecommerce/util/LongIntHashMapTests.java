@@ -0,0 +1,75 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTests {
+
+    @Test
+    void keepsZeroKeyOutsideTable() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.get(0)).isZero();
+
+        assertThat(map.addTo(0, 5)).isEqualTo(5);
+        assertThat(map.addTo(0, -2)).isEqualTo(3);
+        map.put(7, 1);
+
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.get(0)).isEqualTo(3);
+        assertThat(map.size()).isEqualTo(2);
+
+        map.put(0, 0);
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.size()).isEqualTo(2);
+
+        Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).containsOnly(Map.entry(0L, 0), Map.entry(7L, 1));
+    }
+
+    @Test
+    void keepsEntriesAcrossRehashes() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        // Multiples of a large power of two, negative keys and the extremes, including 0
+        for (int i = 0; i < 5_000; i++) {
+            long[] keys = {(long) i << 32, -i, Long.MAX_VALUE - i, Long.MIN_VALUE + i};
+            for (long key : keys) {
+                map.addTo(key, 1);
+                expected.merge(key, 1, Integer::sum);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> {
+            assertThat(map.containsKey(key)).as("key %d", key).isTrue();
+            assertThat(map.get(key)).as("key %d", key).isEqualTo(value);
+        });
+        assertThat(map.containsKey(5_000L << 32)).isFalse();
+        assertThat(map.get(-5_000)).isZero();
+
+        Map<Long, Integer> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).isEqualTo(expected);
+    }
+
+    @Test
+    void sizesTableForExpectedEntries() {
+        assertThat(LongIntHashMap.capacityFor(0)).isEqualTo(8);
+        assertThat(LongIntHashMap.capacityFor(8)).isEqualTo(16);
+        assertThat(LongIntHashMap.capacityFor(1_000)).isEqualTo(2048);
+
+        LongIntHashMap map = new LongIntHashMap(1_000);
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, (int) key);
+        }
+        assertThat(map.size()).isEqualTo(1_000);
+        assertThat(map.get(1_000)).isEqualTo(1_000);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongObjectHashMapTests {
+
+    @Test
+    void keepsZeroKeyOutsideTable() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThat(map.get(0)).isNull();
+        assertThat(map.computeIfAbsent(0, key -> "zero")).isEqualTo("zero");
+        assertThat(map.computeIfAbsent(0, key -> "other")).isEqualTo("zero");
+        map.put(0, "replaced");
+        map.put(3, "three");
+
+        assertThat(map.get(0)).isEqualTo("replaced");
+        assertThat(map.size()).isEqualTo(2);
+
+        Map<Long, String> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).containsOnly(Map.entry(0L, "replaced"), Map.entry(3L, "three"));
+    }
+
+    @Test
+    void keepsEntriesAcrossRehashes() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long[] keys = {(long) i << 32, -i, Long.MAX_VALUE - i, Long.MIN_VALUE + i};
+            for (long key : keys) {
+                map.put(key, ~key);
+                expected.put(key, ~key);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).as("key %d", key).isEqualTo(value));
+        assertThat(map.get(5_000L << 32)).isNull();
+
+        Map<Long, Long> entries = new HashMap<>();
+        map.forEach(entries::put);
+        assertThat(entries).isEqualTo(expected);
+    }
+}